@@ -0,0 +1,153 @@
+/*
+ * ChunkedGrowableArray.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.util.Arrays;
+
+/**
+ * A GrowableArray that grows by adding fixed-size chunks instead of copying
+ * into a bigger array.  A directory of chunk references is the first level
+ * and the chunks are the second, so element i lives at
+ * chunks[i >>> shift][i & mask].  Elements are never copied; only the small
+ * directory doubles when it runs out of room.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class ChunkedGrowableArray<T> implements GrowableArray<T> {
+    /** log2 of the default number of elements in a chunk */
+    private static final int DEFAULT_CHUNK_SHIFT = 10;
+
+    /** the first level, chunks[0..chunkCount) are allocated */
+    private Object[][] chunks;
+
+    /** number of allocated chunks */
+    private int chunkCount;
+
+    /** log2 of the chunk size */
+    private final int shift;
+
+    /** chunk size - 1 */
+    private final int mask;
+
+    /** the next available valid slot for data */
+    private int index;
+
+    /**
+     *
+     * Makes a new ChunkedGrowableArray with chunks of 1024 elements
+     */
+    public ChunkedGrowableArray() {
+        this(DEFAULT_CHUNK_SHIFT);
+    }
+
+    /**
+     *
+     * Makes a new ChunkedGrowableArray with chunks of 2^chunkShift elements
+     * @param chunkShift log2 of the chunk size, between 0 and 30
+     */
+    public ChunkedGrowableArray(int chunkShift) {
+        if (chunkShift < 0 || chunkShift > 30) throw new IllegalArgumentException();
+        shift = chunkShift;
+        mask = (1 << chunkShift) - 1;
+        chunks = new Object[1][];
+        chunks[0] = new Object[1 << chunkShift];
+        chunkCount = 1;
+        index = 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#isEmpty()
+     */
+    @Override
+    public boolean isEmpty() {
+        return index == 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#capacity()
+     */
+    @Override
+    public int capacity() {
+        return (int) Math.min((long) chunkCount << shift, Integer.MAX_VALUE);
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#size()
+     */
+    @Override
+    public int size() {
+        return index;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#get(int)
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int slot) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+
+        return (T) chunks[slot >>> shift][slot & mask];
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#set(int, java.lang.Object)
+     */
+    @Override
+    public void set(int slot, T data) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+
+        chunks[slot >>> shift][slot & mask] = data;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#add(java.lang.Object)
+     */
+    @Override
+    public void add(T data) {
+        if (index == Integer.MAX_VALUE) throw new IllegalStateException("array is full");
+
+        int chunk = index >>> shift;
+        if (chunk >= chunkCount) addChunk();
+        chunks[chunk][index & mask] = data;
+        index++;
+    }
+
+    /**
+     * Allocates one more chunk, doubling the directory if it is full
+     */
+    private void addChunk() {
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        chunks[chunkCount++] = new Object[mask + 1];
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#remove()
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T remove() {
+        if (isEmpty()) return null;
+        index--;
+        Object[] chunk = chunks[index >>> shift];
+        T data = (T) chunk[index & mask];
+        chunk[index & mask] = null;
+
+        // keep one empty chunk spare so add/remove at a boundary doesn't reallocate
+        int needed = (index >>> shift) + 2;
+        while (chunkCount > needed) {
+            chunks[--chunkCount] = null;
+        }
+        return data;
+    }
+
+}
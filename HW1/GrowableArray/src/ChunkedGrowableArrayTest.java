@@ -0,0 +1,70 @@
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * ChunkedGrowableArrayTest.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class ChunkedGrowableArrayTest {
+    ChunkedGrowableArray<String> array;
+
+    @Before
+    public void setUp() {
+        array = new ChunkedGrowableArray<String>(2);
+    }
+
+    @Test
+    public void testAddAcrossChunks() {
+        assertEquals(4, array.capacity());
+        for (int i = 0; i < 23; i++) {
+            array.add("A" + i);
+        }
+
+        assertEquals(23, array.size());
+        assertEquals(24, array.capacity());
+        for (int i = 0; i < 23; i++) {
+            assertEquals("A" + i, array.get(i));
+        }
+        array.set(13, "B");
+        assertEquals("B", array.get(13));
+    }
+
+    @Test
+    public void testRemoveReleasesChunks() {
+        for (int i = 0; i < 23; i++) {
+            array.add("A" + i);
+        }
+        for (int i = 22; i >= 3; i--) {
+            assertEquals("A" + i, array.remove());
+        }
+
+        assertEquals(3, array.size());
+        assertEquals(8, array.capacity());
+        assertEquals("A2", array.get(2));
+        array.add("C");
+        assertEquals("C", array.get(3));
+    }
+
+    @Test
+    public void testRemoveEmpty() {
+        assertNull(array.remove());
+        assertTrue(array.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetOutOfRange() {
+        array.add("A");
+        array.get(1);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * ChunkedGrowableArrayTimer.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.util.Arrays;
+
+/**
+ * Compares the latency of single add() calls on GrowableArrayImpl, which
+ * copies the whole array when it regrows, and ChunkedGrowableArray, which
+ * never copies elements.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class ChunkedGrowableArrayTimer {
+    public static final int TEST_INPUT_SIZE = 10000000;
+
+    public static void main(String[] args) {
+        System.out.println("Timing Test");
+        System.out.println(TEST_INPUT_SIZE + " entries  GrowableArrayImpl");
+        time(new GrowableArrayImpl<Integer>());
+
+        System.out.println("\n" + TEST_INPUT_SIZE + " entries  ChunkedGrowableArray");
+        time(new ChunkedGrowableArray<Integer>());
+    }
+
+    /**
+     * Times every add() into array and prints the latency percentiles
+     * @param array the empty array to fill
+     */
+    static void time(GrowableArray<Integer> array) {
+        Integer item = 42;
+        long[] latency = new long[TEST_INPUT_SIZE];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            long before = System.nanoTime();
+            array.add(item);
+            latency[i] = System.nanoTime() - before;
+        }
+        long stop = System.nanoTime();
+
+        Arrays.sort(latency);
+        System.out.println("Time to fill array: " + (stop - start));
+        System.out.println("p50 add (ns): " + latency[TEST_INPUT_SIZE / 2]);
+        System.out.println("p99.99 add (ns): " + latency[(int) (TEST_INPUT_SIZE * 0.9999)]);
+        System.out.println("max add (ns): " + latency[TEST_INPUT_SIZE - 1]);
+    }
+}
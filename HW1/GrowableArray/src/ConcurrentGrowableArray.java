@@ -0,0 +1,198 @@
+/*
+ * ConcurrentGrowableArray.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An append-only GrowableArray that many threads can add to at once without
+ * a lock.  add() reserves its slot with an atomic increment, writes it, and
+ * then moves the published size past every slot that has been written.
+ *
+ * The elements live in chunks that double in size (16, 32, 64, ...), held in
+ * a directory with a slot for every chunk the array could ever need, so
+ * growing never moves anything.  The first thread to need a chunk allocates
+ * it and installs it with a compare-and-set; a thread that loses the race
+ * simply uses the winner's chunk.  Readers never wait on a writer that is
+ * growing the array.
+ *
+ * Only the published slots, those below size(), can be read or set; a slot
+ * is published once it and every slot before it have been written.  Readers
+ * never wait on a writer, and a slot reserved by an add() that hasn't
+ * written yet is simply not there.  A writer thread that dies between
+ * reserving and writing stops publication at its slot.  Null elements are
+ * not allowed, since null marks a slot that hasn't been written.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class ConcurrentGrowableArray<T> implements GrowableArray<T> {
+    /** log2 of the size of the first chunk */
+    private static final int FIRST_SHIFT = 4;
+
+    /** chunks 0..MAX_CHUNKS-1 cover every position below 2^31 */
+    private static final int MAX_CHUNKS = 31 - FIRST_SHIFT;
+
+    /** the most elements the chunks can hold */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - (1 << FIRST_SHIFT) + 1;
+
+    /** chunk k holds 2^(k + FIRST_SHIFT) elements, null until first needed */
+    private final AtomicReferenceArray<AtomicReferenceArray<T>> chunks;
+
+    /** the next slot to hand out */
+    private final AtomicInteger reserved;
+
+    /** every slot below this has been written */
+    private final AtomicInteger published;
+
+    /**
+     *
+     * Makes a new empty ConcurrentGrowableArray
+     */
+    public ConcurrentGrowableArray() {
+        chunks = new AtomicReferenceArray<AtomicReferenceArray<T>>(MAX_CHUNKS);
+        chunks.set(0, new AtomicReferenceArray<T>(1 << FIRST_SHIFT));
+        reserved = new AtomicInteger();
+        published = new AtomicInteger();
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#isEmpty()
+     */
+    @Override
+    public boolean isEmpty() {
+        return published.get() == 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#capacity()
+     */
+    @Override
+    public int capacity() {
+        long total = 0;
+        for (int k = 0; k < MAX_CHUNKS && chunks.get(k) != null; k++) {
+            total += 1L << (k + FIRST_SHIFT);
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Counts the published slots; adds still writing aren't included
+     * @see GrowableArray#size()
+     */
+    @Override
+    public int size() {
+        return published.get();
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#get(int)
+     */
+    @Override
+    public T get(int slot) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+
+        long position = (long) slot + (1 << FIRST_SHIFT);
+        int k = chunkOf(position);
+        // published, so the chunk is there and the slot is written
+        return chunks.get(k).get((int) (position - (1L << (k + FIRST_SHIFT))));
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#set(int, java.lang.Object)
+     */
+    @Override
+    public void set(int slot, T data) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+        if (data == null) throw new IllegalArgumentException();
+
+        long position = (long) slot + (1 << FIRST_SHIFT);
+        int k = chunkOf(position);
+        // published, so add() has already written it and won't overwrite this
+        chunks.get(k).set((int) (position - (1L << (k + FIRST_SHIFT))), data);
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#add(java.lang.Object)
+     */
+    @Override
+    public void add(T data) {
+        if (data == null) throw new IllegalArgumentException();
+
+        int slot = reserved.getAndIncrement();
+        if (slot < 0 || slot >= MAX_SIZE) {
+            reserved.set(MAX_SIZE);
+            throw new IllegalStateException("array is full");
+        }
+
+        long position = (long) slot + (1 << FIRST_SHIFT);
+        int k = chunkOf(position);
+        // a full volatile store, not lazySet: then either this thread sees the
+        // slot before its own written, or that slot's writer sees this one
+        chunk(k).set((int) (position - (1L << (k + FIRST_SHIFT))), data);
+        publish();
+    }
+
+    /**
+     * Moves the published size past every slot that has been written.  Any
+     * thread that has just written a slot helps, so publication never waits
+     * on a writer that has already finished.
+     */
+    private void publish() {
+        int p = published.get();
+        while (p < MAX_SIZE && isWritten(p)) {
+            published.compareAndSet(p, p + 1);
+            p = published.get();
+        }
+    }
+
+    /**
+     * @param slot a slot below MAX_SIZE
+     * @return whether the add() that reserved slot has written it
+     */
+    private boolean isWritten(int slot) {
+        long position = (long) slot + (1 << FIRST_SHIFT);
+        int k = chunkOf(position);
+        AtomicReferenceArray<T> chunk = chunks.get(k);
+        return chunk != null && chunk.get((int) (position - (1L << (k + FIRST_SHIFT)))) != null;
+    }
+
+    /**
+     * The array is append-only
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public T remove() {
+        throw new UnsupportedOperationException("remove isn't supported");
+    }
+
+    /**
+     * Gets chunk k, allocating it if no other thread has yet
+     * @param k the chunk wanted
+     * @return the chunk
+     */
+    private AtomicReferenceArray<T> chunk(int k) {
+        AtomicReferenceArray<T> chunk = chunks.get(k);
+        if (chunk == null) {
+            chunks.compareAndSet(k, null, new AtomicReferenceArray<T>(1 << (k + FIRST_SHIFT)));
+            chunk = chunks.get(k);
+        }
+        return chunk;
+    }
+
+    /**
+     * @param position an index shifted up by the size of the first chunk
+     * @return the chunk that holds the position
+     */
+    private static int chunkOf(long position) {
+        return 63 - Long.numberOfLeadingZeros(position) - FIRST_SHIFT;
+    }
+
+}
@@ -0,0 +1,115 @@
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * ConcurrentGrowableArrayTest.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class ConcurrentGrowableArrayTest {
+    ConcurrentGrowableArray<Integer> array;
+
+    @Before
+    public void setUp() {
+        array = new ConcurrentGrowableArray<Integer>();
+    }
+
+    @Test
+    public void testAddGetSet() {
+        assertEquals(16, array.capacity());
+        for (int i = 0; i < 23; i++) {
+            array.add(i);
+        }
+
+        assertEquals(23, array.size());
+        assertEquals(48, array.capacity());
+        assertEquals(Integer.valueOf(22), array.get(22));
+        array.set(16, -1);
+        assertEquals(Integer.valueOf(-1), array.get(16));
+    }
+
+    @Test
+    public void testManyProducers() throws InterruptedException {
+        final int perThread = 10000;
+        Thread[] producers = new Thread[8];
+        for (int t = 0; t < producers.length; t++) {
+            final int id = t;
+            producers[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        array.add(id * perThread + i);
+                    }
+                }
+            };
+            producers[t].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(producers.length * perThread, array.size());
+        boolean[] seen = new boolean[array.size()];
+        for (int i = 0; i < array.size(); i++) {
+            int value = array.get(i);
+            assertFalse(seen[value]);
+            seen[value] = true;
+        }
+    }
+
+    @Test
+    public void testReadersOnlySeePublished() throws InterruptedException {
+        final int total = 200000;
+        Thread producer = new Thread() {
+            public void run() {
+                for (int i = 0; i < total; i++) {
+                    array.add(i);
+                }
+            }
+        };
+        producer.start();
+
+        // every slot below size() is readable straight away, without waiting
+        int checked = 0;
+        while (checked < total) {
+            int size = array.size();
+            for (; checked < size; checked++) {
+                assertEquals(Integer.valueOf(checked), array.get(checked));
+            }
+            Thread.yield();
+        }
+        producer.join();
+        assertEquals(total, array.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetUnpublished() {
+        array.set(0, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetUnpublished() {
+        array.add(1);
+        array.get(1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemove() {
+        array.add(1);
+        array.remove();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        array.add(null);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * ConcurrentGrowableArrayTimer.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * Measures add() throughput with 1, 4, 16 and 64 producer threads, for a
+ * GrowableArrayImpl behind one lock and for the lock-free ConcurrentGrowableArray.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class ConcurrentGrowableArrayTimer {
+    public static final int TEST_INPUT_SIZE = 8000000;
+    public static final int[] THREAD_COUNTS = {1, 4, 16, 64};
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Timing Test");
+        System.out.println(TEST_INPUT_SIZE + " entries split across producer threads");
+
+        for (int threads : THREAD_COUNTS) {
+            final GrowableArray<Integer> locked = new GrowableArrayImpl<Integer>();
+            long time = time(threads, new Adder() {
+                public void add(Integer item) {
+                    synchronized (locked) {
+                        locked.add(item);
+                    }
+                }
+            });
+            System.out.println("\n" + threads + " threads");
+            System.out.println("Locked GrowableArrayImpl adds/ms: " + TEST_INPUT_SIZE * 1000000L / time);
+
+            final GrowableArray<Integer> lockFree = new ConcurrentGrowableArray<Integer>();
+            time = time(threads, new Adder() {
+                public void add(Integer item) {
+                    lockFree.add(item);
+                }
+            });
+            System.out.println("ConcurrentGrowableArray adds/ms: " + TEST_INPUT_SIZE * 1000000L / time);
+        }
+    }
+
+    /** one add into whichever array is being timed */
+    interface Adder {
+        void add(Integer item);
+    }
+
+    /**
+     * Starts the threads together and waits for all of them
+     * @param threads how many producers to run
+     * @param adder what each producer calls
+     * @return nanoseconds from start until every producer finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static long time(int threads, final Adder adder) throws InterruptedException {
+        final int perThread = TEST_INPUT_SIZE / threads;
+        final Integer item = 42;
+        Thread[] producers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            producers[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < perThread; ++i) {
+                        adder.add(item);
+                    }
+                }
+            };
+        }
+
+        long start = System.nanoTime();
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        return System.nanoTime() - start;
+    }
+}
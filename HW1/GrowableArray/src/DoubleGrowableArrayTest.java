@@ -0,0 +1,87 @@
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * DoubleGrowableArrayTest.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class DoubleGrowableArrayTest {
+    DoubleGrowableArray array;
+
+    @Before
+    public void setUp() {
+        array = new DoubleGrowableArray();
+    }
+
+    @Test
+    public void testBoxedAndUnboxedAgree() {
+        for (int i = 0; i < 6; i++) {
+            array.addDouble(i * 10.5);
+        }
+        array.add(60.5);
+
+        assertEquals(7, array.size());
+        assertEquals(31.5, array.getDouble(3), 0.0);
+        assertEquals(Double.valueOf(60.5), array.get(6));
+
+        array.setDouble(3, -1.25);
+        assertEquals(Double.valueOf(-1.25), array.get(3));
+        assertEquals(Double.valueOf(60.5), array.remove());
+        assertEquals(6, array.size());
+    }
+
+    @Test
+    public void testRegrow() {
+        for (int i = 0; i < 23; i++) {
+            array.addDouble(i);
+        }
+
+        assertEquals(22.0, array.getDouble(22), 0.0);
+        assertEquals(40, array.capacity());
+        assertEquals(23, array.size());
+    }
+
+    @Test
+    public void testAddAll() {
+        array.addDouble(-1.0);
+        double[] data = new double[25];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i;
+        }
+        array.addAll(data);
+
+        assertEquals(26, array.size());
+        assertEquals(40, array.capacity());
+        assertEquals(-1.0, array.getDouble(0), 0.0);
+        assertEquals(24.0, array.getDouble(25), 0.0);
+    }
+
+    @Test
+    public void testToArray() {
+        array.addAll(new double[] {3, 1, 4});
+        assertArrayEquals(new double[] {3, 1, 4}, array.toArray(), 0.0);
+        assertNull(new DoubleGrowableArray().remove());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetOutOfRange() {
+        array.addDouble(1.0);
+        array.getDouble(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        array.add(null);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * FixedIncrementGrowthPolicy.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * Grows the capacity by a fixed number of slots and never shrinks.  Wastes
+ * the least memory, but adds cost O(n / increment) copies amortized.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class FixedIncrementGrowthPolicy implements GrowthPolicy {
+    /** the number of slots added by each regrow */
+    private final int increment;
+
+    /**
+     * @param increment the number of slots added by each regrow, must be positive
+     */
+    public FixedIncrementGrowthPolicy(int increment) {
+        if (increment <= 0) throw new IllegalArgumentException();
+        this.increment = increment;
+    }
+
+    @Override
+    public int grow(int capacity, int minCapacity) {
+        // a negative minCapacity means the caller's size + count overflowed
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array length " + (minCapacity & 0xffffffffL) + " is too large");
+        }
+        long steps = ((long) minCapacity - capacity + increment - 1) / increment;
+        return (int) Math.min(capacity + Math.max(steps, 1) * increment, MAX_CAPACITY);
+    }
+
+    @Override
+    public int shrink(int capacity, int size) {
+        return capacity;
+    }
+}
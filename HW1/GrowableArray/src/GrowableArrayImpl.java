@@ -5,6 +5,16 @@
  * Copyright 2011 BobSoft Inc
  */
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * @author Robert
  * @version 1.0
@@ -13,12 +23,18 @@
 public class GrowableArrayImpl<T> implements GrowableArray<T> {
     /** The default size of the initial array if none specified */
     private static final int DEFAULT_CAPACITY = 10;
+
+    /** parallelForEach stops splitting at ranges this short */
+    private static final int FOR_EACH_GRAIN = 1 << 13;
     
     /** For the backing store, we use a primitive array */
     private T[] store;
     
     /** the next available valid slot for data */
     private int index;
+
+    /** decides when and how far the store grows and shrinks */
+    private final GrowthPolicy policy;
     
     /**
      * 
@@ -36,10 +52,22 @@ public class GrowableArrayImpl<T> implements GrowableArray<T> {
      * Makes a new GrowableArrayImpl of the requested capacity
      * @param capacity the initial capacity to use
      */
-    @SuppressWarnings("unchecked")
     public GrowableArrayImpl(int capacity) {
+        this(capacity, new MultiplicativeGrowthPolicy());
+    }
+
+    /**
+     *
+     * Makes a new GrowableArrayImpl of the requested capacity
+     * @param capacity the initial capacity to use
+     * @param policy decides how the array grows and shrinks
+     */
+    @SuppressWarnings("unchecked")
+    public GrowableArrayImpl(int capacity, GrowthPolicy policy) {
+        if (policy == null) throw new IllegalArgumentException();
         store = (T[]) new Object[capacity];
         index = 0;
+        this.policy = policy;
     }
 
     /* (non-Javadoc)
@@ -97,17 +125,32 @@ public class GrowableArrayImpl<T> implements GrowableArray<T> {
     @Override
     public void add(T data) {
         
-        if (index >= store.length) regrow();
+        if (index >= store.length) regrow(index + 1);
         store[index++] = data;
 
     }
     
-    @SuppressWarnings("unchecked")
-    private void regrow() {
-        T[] old = store;
-        store = (T[]) new Object[old.length * 2];
-        for (int i = 0; i < old.length ; i++) {
-            store[i] = old[i];
+    private void regrow(int minCapacity) {
+        store = Arrays.copyOf(store, policy.grow(store.length, minCapacity));
+    }
+
+    /**
+     * Grows the array, if needed, so it can hold minCapacity elements
+     * without another regrow
+     * @param minCapacity the number of elements the array must fit
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > store.length) {
+            store = Arrays.copyOf(store, minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the capacity down to the current size
+     */
+    public void trimToSize() {
+        if (index < store.length) {
+            store = Arrays.copyOf(store, index);
         }
     }
 
@@ -118,8 +161,113 @@ public class GrowableArrayImpl<T> implements GrowableArray<T> {
     public T remove() {
         if (isEmpty()) return null;
         T data = store[index - 1];
+        store[index - 1] = null;
         index--;
+
+        int newCapacity = policy.shrink(store.length, index);
+        if (newCapacity < store.length) {
+            store = Arrays.copyOf(store, Math.max(newCapacity, index));
+        }
         return data;
     }
 
+    /**
+     * Splits on the backing store directly, so streams skip the bounds
+     * checks that get() does
+     * @return a spliterator over the elements currently in the array
+     */
+    public Spliterator<T> spliterator() {
+        return Arrays.spliterator(store, 0, index);
+    }
+
+    /**
+     * @return a sequential stream of the elements in the array
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @return a stream of the elements in the array that runs on the common fork-join pool
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Performs action on every element, from index 0 up, on this thread.  Use
+     * parallelForEach when the order doesn't matter.
+     * @param action what to do with each element
+     */
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < index; i++) {
+            action.accept(store[i]);
+        }
+    }
+
+    /**
+     * Performs action on every element on the common fork-join pool, splitting
+     * the backing store into halves until the pieces are small.  Elements are
+     * visited in no particular order and from several threads at once, so
+     * action must be thread safe.
+     * @param action what to do with each element
+     */
+    public void parallelForEach(Consumer<? super T> action) {
+        ForkJoinPool.commonPool().invoke(new ForEachTask<T>(store, 0, index, action));
+    }
+
+    /**
+     * Combines every element with op in parallel on the common fork-join pool
+     * @param identity the starting value, must be an identity for op
+     * @param op an associative function to combine elements with
+     * @return the combined value, identity if the array is empty
+     */
+    public T reduce(T identity, BinaryOperator<T> op) {
+        return parallelStream().reduce(identity, op);
+    }
+
+    /**
+     * Sorts the elements in place with a parallel merge sort on the common
+     * fork-join pool
+     * @param comparator the order to sort into
+     */
+    public void parallelSort(Comparator<? super T> comparator) {
+        Arrays.parallelSort(store, 0, index, comparator);
+    }
+
+    /**
+     * Runs an action over store[from..to), splitting it in half until the
+     * halves are down to FOR_EACH_GRAIN elements
+     * @param <T> the element type
+     */
+    private static final class ForEachTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] store;
+        private final int from;
+        private final int to;
+        private final Consumer<? super T> action;
+
+        ForEachTask(T[] store, int from, int to, Consumer<? super T> action) {
+            this.store = store;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FOR_EACH_GRAIN) {
+                for (int i = from; i < to; i++) {
+                    action.accept(store[i]);
+                }
+                return;
+            }
+
+            int mid = (from + to) >>> 1;
+            invokeAll(new ForEachTask<T>(store, from, mid, action),
+                    new ForEachTask<T>(store, mid, to, action));
+        }
+    }
+
 }
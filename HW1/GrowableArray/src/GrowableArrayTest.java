@@ -1,6 +1,10 @@
 
 import static org.junit.Assert.*;
 
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -148,4 +152,110 @@ public class GrowableArrayTest {
         assertEquals(23, array.size());
     }
 
+    @Test
+    public void testEnsureCapacityAndTrim() {
+        GrowableArrayImpl<String> impl = new GrowableArrayImpl<String>();
+        impl.ensureCapacity(100);
+        assertEquals(100, impl.capacity());
+        for (int i = 0; i < 6; i++) {
+            impl.add("A" + i);
+        }
+        assertEquals(100, impl.capacity());
+        impl.trimToSize();
+        assertEquals(6, impl.capacity());
+        impl.add("A6");
+        assertEquals(12, impl.capacity());
+        assertEquals("A6", impl.get(6));
+    }
+
+    @Test
+    public void testGrowthPolicies() {
+        GrowableArrayImpl<String> half = new GrowableArrayImpl<String>(10,
+                new MultiplicativeGrowthPolicy(1.5));
+        GrowableArrayImpl<String> fixed = new GrowableArrayImpl<String>(10,
+                new FixedIncrementGrowthPolicy(5));
+        for (int i = 0; i < 11; i++) {
+            half.add("A" + i);
+            fixed.add("A" + i);
+        }
+        assertEquals(15, half.capacity());
+        assertEquals(15, fixed.capacity());
+    }
+
+    @Test
+    public void testGrowthPoliciesStopAtMaxCapacity() {
+        GrowthPolicy[] policies = {new MultiplicativeGrowthPolicy(1.5),
+                new FixedIncrementGrowthPolicy(1 << 30), new ShrinkingGrowthPolicy()};
+        int capacity = 1500000000;
+        for (GrowthPolicy policy : policies) {
+            assertEquals(GrowthPolicy.MAX_CAPACITY, policy.grow(capacity, capacity + 1));
+            assertEquals(GrowthPolicy.MAX_CAPACITY, policy.grow(capacity, GrowthPolicy.MAX_CAPACITY));
+            for (int minCapacity : new int[] {-1, Integer.MIN_VALUE, GrowthPolicy.MAX_CAPACITY + 1}) {
+                try {
+                    policy.grow(capacity, minCapacity);
+                    fail(policy.getClass().getSimpleName() + " grew to " + minCapacity);
+                } catch (OutOfMemoryError e) {
+                    // too large, or size + count overflowed
+                }
+            }
+        }
+        assertEquals(20, new FixedIncrementGrowthPolicy(5).grow(10, 17));
+    }
+
+    @Test
+    public void testShrinkAtQuarter() {
+        GrowableArrayImpl<String> impl = new GrowableArrayImpl<String>(10,
+                new ShrinkingGrowthPolicy());
+        for (int i = 0; i < 80; i++) {
+            impl.add("A" + i);
+        }
+        assertEquals(80, impl.capacity());
+        while (impl.size() > 21) {
+            impl.remove();
+        }
+        assertEquals(80, impl.capacity());
+        impl.remove();
+        assertEquals(40, impl.capacity());
+        assertEquals("A19", impl.remove());
+        assertEquals("A0", impl.get(0));
+    }
+
+    @Test
+    public void testBulkOperations() {
+        GrowableArrayImpl<Integer> impl = new GrowableArrayImpl<Integer>();
+        for (int i = 0; i < 1000; i++) {
+            impl.add((i * 7919) % 1000);
+        }
+
+        assertEquals(Integer.valueOf(499500), impl.reduce(0, Integer::sum));
+        assertEquals(500, impl.parallelStream().filter(i -> i % 2 == 0).count());
+
+        impl.parallelSort(Comparator.reverseOrder());
+        assertEquals(Integer.valueOf(999), impl.get(0));
+        assertEquals(Integer.valueOf(0), impl.get(999));
+
+        final int[] sum = {0};
+        impl.forEach(i -> sum[0] += i);
+        assertEquals(499500, sum[0]);
+    }
+
+    @Test
+    public void testParallelForEach() {
+        GrowableArrayImpl<Integer> impl = new GrowableArrayImpl<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            impl.add(i);
+        }
+
+        LongAdder sum = new LongAdder();
+        AtomicIntegerArray seen = new AtomicIntegerArray(impl.size());
+        impl.parallelForEach(i -> {
+            sum.add(i);
+            seen.incrementAndGet(i);
+        });
+        assertEquals(4999950000L, sum.sum());
+        for (int i = 0; i < impl.size(); i++) {
+            assertEquals(1, seen.get(i));
+        }
+    }
+
 }
@@ -0,0 +1,83 @@
+/*
+ * GrowableArrayTimer.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * Compares time and heap use of the generic GrowableArrayImpl against the
+ * primitive IntGrowableArray when filled with ints.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class GrowableArrayTimer {
+    public static final int TEST_INPUT_SIZE = 5000000;
+
+    public static void main(String[] args) {
+        System.out.println("Timing Test");
+        System.out.println(TEST_INPUT_SIZE + " entries  GrowableArrayImpl<Integer>");
+
+        long before = usedMemory();
+        long start = System.nanoTime();
+
+        GrowableArray<Integer> boxed = new GrowableArrayImpl<Integer>();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            boxed.add(i);
+        }
+
+        long stop = System.nanoTime();
+        long after = usedMemory();
+
+        System.out.println("Time to fill array: " + (stop - start));
+        System.out.println("Bytes retained: " + (after - before));
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            sum += boxed.get(i);
+        }
+        stop = System.nanoTime();
+
+        System.out.println("Time to sum array: " + (stop - start) + " (" + sum + ")");
+
+        boxed = null;
+
+        System.out.println("\n" + TEST_INPUT_SIZE + " entries  IntGrowableArray");
+
+        before = usedMemory();
+        start = System.nanoTime();
+
+        IntGrowableArray ints = new IntGrowableArray();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            ints.addInt(i);
+        }
+
+        stop = System.nanoTime();
+        after = usedMemory();
+
+        System.out.println("Time to fill array: " + (stop - start));
+        System.out.println("Bytes retained: " + (after - before));
+
+        sum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            sum += ints.getInt(i);
+        }
+        stop = System.nanoTime();
+
+        System.out.println("Time to sum array: " + (stop - start) + " (" + sum + ")");
+    }
+
+    /**
+     * Runs the collector and reports the heap currently in use
+     * @return bytes of heap in use after a gc
+     */
+    static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * GrowthPolicy.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * Decides how much a GrowableArrayImpl grows when it is full and whether it
+ * gives memory back when elements are removed.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public interface GrowthPolicy {
+       /** the largest array length the VM can be relied on to allocate */
+       int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+       /**
+        * Picks the new capacity for a full array
+        *
+        * @param capacity the current capacity
+        * @param minCapacity the smallest capacity that will do
+        * @return the new capacity, at least minCapacity
+        */
+       int grow(int capacity, int minCapacity);
+
+       /**
+        * Picks the capacity after an element has been removed
+        *
+        * @param capacity the current capacity
+        * @param size the number of elements left
+        * @return the new capacity, at least size; returning capacity means no shrink
+        */
+       int shrink(int capacity, int size);
+}
@@ -0,0 +1,65 @@
+/*
+ * GrowthPolicyTimer.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * Fills and drains a GrowableArrayImpl under each GrowthPolicy, reporting the
+ * amortized cost of add() and the peak number of slots allocated at once
+ * (old and new store are both live while a regrow copies).
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class GrowthPolicyTimer {
+    public static final int TEST_INPUT_SIZE = 2000000;
+
+    public static void main(String[] args) {
+        System.out.println("Timing Test");
+        System.out.println(TEST_INPUT_SIZE + " entries added then removed");
+
+        time("Doubling", new MultiplicativeGrowthPolicy());
+        time("1.5x", new MultiplicativeGrowthPolicy(1.5));
+        time("Fixed +4096", new FixedIncrementGrowthPolicy(4096));
+        time("Doubling, shrink at 1/4", new ShrinkingGrowthPolicy());
+    }
+
+    /**
+     * Runs one policy and prints its numbers
+     * @param name what to call the policy
+     * @param policy the policy to time
+     */
+    static void time(String name, GrowthPolicy policy) {
+        GrowableArrayImpl<Integer> array = new GrowableArrayImpl<Integer>(10, policy);
+        Integer item = 42;
+        long peakSlots = array.capacity();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            int before = array.capacity();
+            array.add(item);
+            if (array.capacity() != before) {
+                peakSlots = Math.max(peakSlots, (long) before + array.capacity());
+            }
+        }
+        long stop = System.nanoTime();
+
+        long fullCapacity = array.capacity();
+
+        long removeStart = System.nanoTime();
+        while (!array.isEmpty()) {
+            array.remove();
+        }
+        long removeStop = System.nanoTime();
+
+        System.out.println("\n" + name);
+        System.out.println("Time per add (ns): " + (stop - start) / (double) TEST_INPUT_SIZE);
+        System.out.println("Time per remove (ns): " + (removeStop - removeStart) / (double) TEST_INPUT_SIZE);
+        System.out.println("Capacity when full: " + fullCapacity);
+        System.out.println("Peak slots allocated: " + peakSlots);
+        System.out.println("Capacity when empty: " + array.capacity());
+    }
+}
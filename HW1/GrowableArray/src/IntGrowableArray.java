@@ -0,0 +1,179 @@
+/*
+ * IntGrowableArray.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.util.Arrays;
+
+/**
+ * A GrowableArray of ints that keeps its data in an unboxed int[] instead of
+ * an array of Integer references.  The boxed GrowableArray methods still work,
+ * but the getInt/setInt/addInt methods avoid allocating an Integer per call.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class IntGrowableArray implements GrowableArray<Integer> {
+    /** The default size of the initial array if none specified */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /** doubles the store, stopping at GrowthPolicy.MAX_CAPACITY */
+    private static final GrowthPolicy GROWTH = new MultiplicativeGrowthPolicy();
+
+    /** The backing store, kept as primitives */
+    private int[] store;
+
+    /** the next available valid slot for data */
+    private int index;
+
+    /**
+     *
+     * Makes a new IntGrowableArray of default capacity
+     */
+    public IntGrowableArray() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * Makes a new IntGrowableArray of the requested capacity
+     * @param capacity the initial capacity to use
+     */
+    public IntGrowableArray(int capacity) {
+        store = new int[capacity];
+        index = 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#isEmpty()
+     */
+    @Override
+    public boolean isEmpty() {
+        return index == 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#capacity()
+     */
+    @Override
+    public int capacity() {
+        return store.length;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#size()
+     */
+    @Override
+    public int size() {
+        return index;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#get(int)
+     */
+    @Override
+    public Integer get(int slot) throws IllegalArgumentException {
+        return getInt(slot);
+    }
+
+    /**
+     * Return the data at the given index without boxing it
+     *
+     * @param slot the index to look for the data at
+     * @return the data at that index
+     * @throws IllegalArgumentException if the index < 0 or exceeds
+     *                the index of the last valid item
+     */
+    public int getInt(int slot) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+
+        return store[slot];
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#set(int, java.lang.Object)
+     */
+    @Override
+    public void set(int slot, Integer data) throws IllegalArgumentException {
+        if (data == null) throw new IllegalArgumentException();
+
+        setInt(slot, data);
+    }
+
+    /**
+     * Change the data at the given index without boxing it
+     *
+     * @param slot the index to change the data at
+     * @param data the new data to put at that index
+     * @throws IllegalArgumentException if the index < 0 or exceeds
+     *                the index of the last valid item
+     */
+    public void setInt(int slot, int data) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+
+        store[slot] = data;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#add(java.lang.Object)
+     */
+    @Override
+    public void add(Integer data) {
+        if (data == null) throw new IllegalArgumentException();
+
+        addInt(data);
+    }
+
+    /**
+     * Adds the data at the end of the array without boxing it - could cause
+     * a regrow if the array is full
+     * @param data the data to add
+     */
+    public void addInt(int data) {
+        if (index >= store.length) regrow(index + 1);
+        store[index++] = data;
+    }
+
+    /**
+     * Adds every element of data at the end of the array, in order.  At most
+     * one regrow happens no matter how many elements are added.
+     * @param data the elements to add
+     */
+    public void addAll(int[] data) {
+        if (data.length > store.length - index) regrow(index + data.length);
+        System.arraycopy(data, 0, store, index, data.length);
+        index += data.length;
+    }
+
+    /**
+     * @return a new int[] holding exactly the elements currently in the array
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(store, index);
+    }
+
+    /**
+     * Doubles the capacity until it can hold at least minCapacity elements
+     * @param minCapacity the number of elements the store must fit
+     * @throws OutOfMemoryError if minCapacity is more than GrowthPolicy.MAX_CAPACITY
+     *                or overflowed to a negative number
+     */
+    private void regrow(int minCapacity) {
+        store = Arrays.copyOf(store, GROWTH.grow(store.length, minCapacity));
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#remove()
+     */
+    @Override
+    public Integer remove() {
+        if (isEmpty()) return null;
+        return store[--index];
+    }
+
+}
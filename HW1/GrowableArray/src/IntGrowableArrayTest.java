@@ -0,0 +1,99 @@
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * IntGrowableArrayTest.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class IntGrowableArrayTest {
+    IntGrowableArray array;
+
+    @Before
+    public void setUp() {
+        array = new IntGrowableArray();
+    }
+
+    @Test
+    public void testBoxedAndUnboxedAgree() {
+        for (int i = 0; i < 6; i++) {
+            array.addInt(i * 10);
+        }
+        array.add(60);
+
+        assertEquals(7, array.size());
+        assertEquals(30, array.getInt(3));
+        assertEquals(Integer.valueOf(60), array.get(6));
+
+        array.setInt(3, -1);
+        assertEquals(Integer.valueOf(-1), array.get(3));
+        assertEquals(Integer.valueOf(60), array.remove());
+        assertEquals(6, array.size());
+    }
+
+    @Test
+    public void testRegrow() {
+        for (int i = 0; i < 23; i++) {
+            array.addInt(i);
+        }
+
+        assertEquals(22, array.getInt(22));
+        assertEquals(40, array.capacity());
+        assertEquals(23, array.size());
+    }
+
+    @Test
+    public void testAddAll() {
+        array.addInt(-1);
+        int[] data = new int[25];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i;
+        }
+        array.addAll(data);
+
+        assertEquals(26, array.size());
+        assertEquals(40, array.capacity());
+        assertEquals(-1, array.getInt(0));
+        assertEquals(24, array.getInt(25));
+    }
+
+    @Test
+    public void testToArray() {
+        array.addAll(new int[] {3, 1, 4});
+        assertArrayEquals(new int[] {3, 1, 4}, array.toArray());
+        assertNull(new IntGrowableArray().remove());
+    }
+
+    @Test
+    public void testGrowthStopsAtMaxCapacity() {
+        MultiplicativeGrowthPolicy doubling = new MultiplicativeGrowthPolicy();
+        assertEquals(GrowthPolicy.MAX_CAPACITY, doubling.grow(1 << 30, (1 << 30) + 1));
+        assertEquals(GrowthPolicy.MAX_CAPACITY, doubling.grow(1 << 30, GrowthPolicy.MAX_CAPACITY));
+    }
+
+    @Test(expected = OutOfMemoryError.class)
+    public void testGrowthPastMaxCapacity() {
+        new MultiplicativeGrowthPolicy().grow(1 << 30, Integer.MAX_VALUE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetOutOfRange() {
+        array.addInt(1);
+        array.getInt(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        array.add(null);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * IntRecordCodec.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores Integers as 4 byte records
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class IntRecordCodec implements RecordCodec<Integer> {
+
+    @Override
+    public int recordSize() {
+        return 4;
+    }
+
+    @Override
+    public void write(ByteBuffer buffer, int offset, Integer data) {
+        buffer.putInt(offset, data);
+    }
+
+    @Override
+    public Integer read(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset);
+    }
+}
@@ -0,0 +1,87 @@
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * LongGrowableArrayTest.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class LongGrowableArrayTest {
+    LongGrowableArray array;
+
+    @Before
+    public void setUp() {
+        array = new LongGrowableArray();
+    }
+
+    @Test
+    public void testBoxedAndUnboxedAgree() {
+        for (int i = 0; i < 6; i++) {
+            array.addLong(i * 10000000000L);
+        }
+        array.add(60L);
+
+        assertEquals(7, array.size());
+        assertEquals(30000000000L, array.getLong(3));
+        assertEquals(Long.valueOf(60L), array.get(6));
+
+        array.setLong(3, -1L);
+        assertEquals(Long.valueOf(-1L), array.get(3));
+        assertEquals(Long.valueOf(60L), array.remove());
+        assertEquals(6, array.size());
+    }
+
+    @Test
+    public void testRegrow() {
+        for (int i = 0; i < 23; i++) {
+            array.addLong(i);
+        }
+
+        assertEquals(22, array.getLong(22));
+        assertEquals(40, array.capacity());
+        assertEquals(23, array.size());
+    }
+
+    @Test
+    public void testAddAll() {
+        array.addLong(-1);
+        long[] data = new long[25];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = i;
+        }
+        array.addAll(data);
+
+        assertEquals(26, array.size());
+        assertEquals(40, array.capacity());
+        assertEquals(-1, array.getLong(0));
+        assertEquals(24, array.getLong(25));
+    }
+
+    @Test
+    public void testToArray() {
+        array.addAll(new long[] {3L, 1L, 4L});
+        assertArrayEquals(new long[] {3L, 1L, 4L}, array.toArray());
+        assertNull(new LongGrowableArray().remove());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetOutOfRange() {
+        array.addLong(1);
+        array.getLong(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNull() {
+        array.add(null);
+    }
+}
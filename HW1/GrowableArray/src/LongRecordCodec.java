@@ -0,0 +1,33 @@
+/*
+ * LongRecordCodec.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * Stores Longs as 8 byte records
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class LongRecordCodec implements RecordCodec<Long> {
+
+    @Override
+    public int recordSize() {
+        return 8;
+    }
+
+    @Override
+    public void write(ByteBuffer buffer, int offset, Long data) {
+        buffer.putLong(offset, data);
+    }
+
+    @Override
+    public Long read(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset);
+    }
+}
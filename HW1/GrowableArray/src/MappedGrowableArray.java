@@ -0,0 +1,308 @@
+/*
+ * MappedGrowableArray.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * A GrowableArray that lives in a memory-mapped file, so reopening the file
+ * gives back the array without rebuilding it.
+ *
+ * The file starts with a header holding the record size, the durable size and
+ * the capacity, followed by capacity fixed-width records.  A single mapping is
+ * limited to 2GB, so the records are mapped in regions of at most REGION_BYTES;
+ * growing remaps the last region larger and maps any new regions after it.
+ *
+ * add() is an append: the record is written first, and the size in the header
+ * only moves forward in sync(), after the records have been forced to disk.
+ * After a crash, reopening the file gives back everything up to the last sync().
+ * Changes made by set() and remove() after the last sync() may or may not survive.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class MappedGrowableArray<T> implements GrowableArray<T>, Closeable {
+    /** The default size of the initial array if none specified */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /** marks a file as one of ours */
+    private static final long MAGIC = 0x4247524f57415252L;
+
+    /** bytes reserved at the front of the file for the header */
+    private static final int HEADER_SIZE = 64;
+
+    /** header offsets */
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final int CAPACITY_OFFSET = 24;
+
+    /** the largest mapping we will make for records */
+    private static final int REGION_BYTES = 1 << 30;
+
+    /** turns elements into records and back */
+    private final RecordCodec<T> codec;
+
+    /** bytes per element, cached from the codec */
+    private final int recordSize;
+
+    /** records held by a full region, a power of two */
+    private final int regionRecords;
+
+    /** log2 of regionRecords, to find the region of an index */
+    private final int regionShift;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+
+    /** the header mapping */
+    private MappedByteBuffer header;
+
+    /** the record mappings, every one but the last holds regionRecords records */
+    private MappedByteBuffer[] regions;
+
+    /** number of records the file has room for */
+    private int capacity;
+
+    /** the next available valid slot for data */
+    private int index;
+
+    /**
+     *
+     * Opens the array stored in file, or makes a new one of default capacity
+     * if the file does not exist yet
+     * @param file the file backing the array
+     * @param codec the codec used to store elements
+     * @throws IOException if the file cannot be opened or is not a matching array
+     */
+    public MappedGrowableArray(File file, RecordCodec<T> codec) throws IOException {
+        this(file, codec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * Opens the array stored in file, or makes a new one of the requested
+     * capacity if the file does not exist yet
+     * @param file the file backing the array
+     * @param codec the codec used to store elements
+     * @param capacity the initial capacity to use for a new file
+     * @throws IOException if the file cannot be opened or is not a matching array
+     */
+    public MappedGrowableArray(File file, RecordCodec<T> codec, int capacity) throws IOException {
+        if (codec == null || codec.recordSize() <= 0) throw new IllegalArgumentException();
+        if (capacity < 0) throw new IllegalArgumentException();
+
+        this.codec = codec;
+        recordSize = codec.recordSize();
+        regionShift = 31 - Integer.numberOfLeadingZeros(REGION_BYTES / recordSize);
+        regionRecords = 1 << regionShift;
+
+        boolean existing = file.exists() && file.length() > 0;
+        this.file = new RandomAccessFile(file, "rw");
+        channel = this.file.getChannel();
+
+        try {
+            if (existing) {
+                header = map(0, HEADER_SIZE);
+                if (header.getLong(MAGIC_OFFSET) != MAGIC) {
+                    throw new IOException(file + " is not a MappedGrowableArray");
+                }
+                if (header.getInt(RECORD_SIZE_OFFSET) != recordSize) {
+                    throw new IOException(file + " holds records of a different size");
+                }
+                this.capacity = (int) header.getLong(CAPACITY_OFFSET);
+                index = (int) header.getLong(SIZE_OFFSET);
+            } else {
+                this.file.setLength(HEADER_SIZE + (long) capacity * recordSize);
+                header = map(0, HEADER_SIZE);
+                header.putLong(MAGIC_OFFSET, MAGIC);
+                header.putInt(RECORD_SIZE_OFFSET, recordSize);
+                header.putLong(SIZE_OFFSET, 0);
+                header.putLong(CAPACITY_OFFSET, capacity);
+                header.force();
+                this.capacity = capacity;
+                index = 0;
+            }
+
+            regions = new MappedByteBuffer[0];
+            mapRegions();
+        } catch (IOException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#isEmpty()
+     */
+    @Override
+    public boolean isEmpty() {
+        return index == 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#capacity()
+     */
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#size()
+     */
+    @Override
+    public int size() {
+        return index;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#get(int)
+     */
+    @Override
+    public T get(int slot) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+
+        return codec.read(regions[slot >>> regionShift], offset(slot));
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#set(int, java.lang.Object)
+     */
+    @Override
+    public void set(int slot, T data) throws IllegalArgumentException {
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= size()) throw new IllegalArgumentException();
+        if (data == null) throw new IllegalArgumentException();
+
+        codec.write(regions[slot >>> regionShift], offset(slot), data);
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#add(java.lang.Object)
+     */
+    @Override
+    public void add(T data) {
+        if (data == null) throw new IllegalArgumentException();
+
+        if (index >= capacity) regrow();
+        codec.write(regions[index >>> regionShift], offset(index), data);
+        index++;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#remove()
+     */
+    @Override
+    public T remove() {
+        if (isEmpty()) return null;
+        T data = get(index - 1);
+        index--;
+        return data;
+    }
+
+    /**
+     * The fsync barrier.  Forces every record to disk, then records the
+     * current size in the header and forces that too.  Everything added
+     * before this call survives a crash.
+     */
+    public void sync() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+        header.putLong(SIZE_OFFSET, index);
+        header.force();
+    }
+
+    /**
+     * Syncs the array and closes the file.  The array must not be used afterwards.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        sync();
+        regions = new MappedByteBuffer[0];
+        file.close();
+    }
+
+    /**
+     * Doubles the capacity of the file and maps the new space
+     */
+    private void regrow() {
+        long newCapacity = Math.max(capacity * 2L, 1);
+        if (newCapacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("array cannot hold more than " + Integer.MAX_VALUE + " records");
+        }
+
+        try {
+            file.setLength(HEADER_SIZE + newCapacity * recordSize);
+            capacity = (int) newCapacity;
+            mapRegions();
+            header.putLong(CAPACITY_OFFSET, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes sure every record up to capacity is mapped.  Full regions are kept
+     * as they are; the last region is remapped if it has grown.
+     * @throws IOException if the file cannot be mapped
+     */
+    private void mapRegions() throws IOException {
+        int count = (int) (((long) capacity + regionRecords - 1) >>> regionShift);
+        int keep = regions.length;
+        if (keep > 0 && regions[keep - 1].capacity() < regionRecords * recordSize) {
+            keep--;
+        }
+
+        regions = Arrays.copyOf(regions, count);
+        for (int i = keep; i < count; i++) {
+            long start = HEADER_SIZE + ((long) i << regionShift) * recordSize;
+            regions[i] = map(start, (long) regionSize(i, count) * recordSize);
+        }
+    }
+
+    /**
+     * @param region the region being asked about
+     * @param count how many regions there are
+     * @return the number of records the region holds
+     */
+    private int regionSize(int region, int count) {
+        if (region < count - 1) {
+            return regionRecords;
+        }
+        return capacity - (region << regionShift);
+    }
+
+    /**
+     * @param slot the index of a record
+     * @return the byte offset of that record within its region
+     */
+    private int offset(int slot) {
+        return (slot & (regionRecords - 1)) * recordSize;
+    }
+
+    /**
+     * @param start the file offset to map from
+     * @param length the number of bytes to map
+     * @return the mapping
+     * @throws IOException if the file cannot be mapped
+     */
+    private MappedByteBuffer map(long start, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, start, length);
+    }
+
+}
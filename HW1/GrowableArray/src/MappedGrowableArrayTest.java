@@ -0,0 +1,87 @@
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * MappedGrowableArrayTest.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class MappedGrowableArrayTest {
+    File file;
+    MappedGrowableArray<Integer> array;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("growable", ".arr");
+        file.delete();
+        array = new MappedGrowableArray<Integer>(file, new IntRecordCodec());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        array.close();
+        file.delete();
+    }
+
+    @Test
+    public void testRegrow() {
+        for (int i = 0; i < 23; i++) {
+            array.add(i);
+        }
+
+        assertEquals(Integer.valueOf(22), array.get(22));
+        assertEquals(40, array.capacity());
+        assertEquals(23, array.size());
+        assertEquals(Integer.valueOf(22), array.remove());
+    }
+
+    @Test
+    public void testReopenAfterClose() throws IOException {
+        for (int i = 0; i < 23; i++) {
+            array.add(i);
+        }
+        array.set(3, -3);
+        array.close();
+
+        array = new MappedGrowableArray<Integer>(file, new IntRecordCodec());
+        assertEquals(23, array.size());
+        assertEquals(40, array.capacity());
+        assertEquals(Integer.valueOf(-3), array.get(3));
+        assertEquals(Integer.valueOf(22), array.get(22));
+    }
+
+    @Test
+    public void testReopenKeepsOnlySynced() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            array.add(i);
+        }
+        array.sync();
+        array.add(5);
+
+        MappedGrowableArray<Integer> reopened = new MappedGrowableArray<Integer>(file, new IntRecordCodec());
+        assertEquals(5, reopened.size());
+        assertEquals(Integer.valueOf(4), reopened.get(4));
+        reopened.close();
+        array.sync();
+    }
+
+    @Test(expected = IOException.class)
+    public void testWrongRecordSize() throws IOException {
+        array.sync();
+        new MappedGrowableArray<Long>(file, new LongRecordCodec());
+    }
+}
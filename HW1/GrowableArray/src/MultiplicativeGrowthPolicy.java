@@ -0,0 +1,54 @@
+/*
+ * MultiplicativeGrowthPolicy.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * Grows the capacity by a constant factor (2 for doubling, 1.5, ...) and never shrinks.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class MultiplicativeGrowthPolicy implements GrowthPolicy {
+    /** the factor used by GrowableArrayImpl unless told otherwise */
+    public static final double DOUBLING = 2.0;
+
+    /** what the capacity is multiplied by */
+    private final double factor;
+
+    /**
+     * Makes a doubling policy
+     */
+    public MultiplicativeGrowthPolicy() {
+        this(DOUBLING);
+    }
+
+    /**
+     * @param factor what the capacity is multiplied by, must be more than 1
+     */
+    public MultiplicativeGrowthPolicy(double factor) {
+        if (!(factor > 1.0)) throw new IllegalArgumentException();
+        this.factor = factor;
+    }
+
+    @Override
+    public int grow(int capacity, int minCapacity) {
+        // a negative minCapacity means the caller's size + count overflowed
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required array length " + (minCapacity & 0xffffffffL) + " is too large");
+        }
+        long newCapacity = Math.max(capacity, 1);
+        while (newCapacity < minCapacity) {
+            newCapacity = Math.max(newCapacity + 1, (long) (newCapacity * factor));
+        }
+        return (int) Math.min(newCapacity, MAX_CAPACITY);
+    }
+
+    @Override
+    public int shrink(int capacity, int size) {
+        return capacity;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * OffHeapGrowableArray.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * A GrowableArray that keeps its elements as fixed-width records in direct
+ * ByteBuffers, so the data lives outside the java heap and is never scanned
+ * by the garbage collector.  Values are converted with a RecordCodec, so get()
+ * hands back a freshly decoded value rather than the object that was added.
+ *
+ * One buffer is addressed with an int, so records are spread over chunks of
+ * at most 1GB each.  The first chunk doubles like an ordinary array until it
+ * is full sized, after that the array grows a whole chunk at a time without
+ * copying, so the total can go well past 2GB.  close() frees the memory
+ * straight away instead of waiting for the buffers to be collected.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class OffHeapGrowableArray<T> implements GrowableArray<T>, Closeable {
+    /** The default size of the initial array if none specified */
+    private static final int DEFAULT_CAPACITY = 10;
+
+    /** the most bytes put in one buffer */
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    /** sun.misc.Unsafe, or null if this VM doesn't have it */
+    private static final Object UNSAFE;
+
+    /** Unsafe.invokeCleaner, which frees a direct buffer's memory right away */
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // no way to free early here; buffers are freed when they are collected
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /** turns elements into records and back */
+    private final RecordCodec<T> codec;
+
+    /** bytes per element, cached from the codec */
+    private final int recordSize;
+
+    /** log2 of the number of records in a full chunk */
+    private final int shift;
+
+    /** records in a full chunk - 1 */
+    private final int mask;
+
+    /** The backing store, allocated outside the heap.  null once closed */
+    private ByteBuffer[] chunks;
+
+    /** number of allocated chunks; only the first can be short, and only while it is alone */
+    private int chunkCount;
+
+    /** the next available valid slot for data */
+    private int index;
+
+    /**
+     *
+     * Makes a new OffHeapGrowableArray of default capacity
+     * @param codec the codec used to store elements
+     */
+    public OffHeapGrowableArray(RecordCodec<T> codec) {
+        this(codec, DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * Makes a new OffHeapGrowableArray of the requested capacity
+     * @param codec the codec used to store elements
+     * @param capacity the initial capacity to use
+     */
+    public OffHeapGrowableArray(RecordCodec<T> codec, int capacity) {
+        this(codec, capacity, MAX_CHUNK_BYTES);
+    }
+
+    /**
+     *
+     * Makes a new OffHeapGrowableArray whose chunks are at most chunkBytes long
+     * @param codec the codec used to store elements
+     * @param capacity the initial capacity to use
+     * @param chunkBytes the most bytes put in one buffer, at least one record
+     */
+    OffHeapGrowableArray(RecordCodec<T> codec, int capacity, int chunkBytes) {
+        if (codec == null || codec.recordSize() <= 0) throw new IllegalArgumentException();
+        if (capacity < 0 || chunkBytes < codec.recordSize()) throw new IllegalArgumentException();
+
+        this.codec = codec;
+        recordSize = codec.recordSize();
+        shift = 31 - Integer.numberOfLeadingZeros(chunkBytes / recordSize);
+        mask = (1 << shift) - 1;
+
+        if (capacity <= 1 << shift) {
+            chunks = new ByteBuffer[] {allocate(capacity)};
+            chunkCount = 1;
+        } else {
+            chunkCount = (int) (((long) capacity + mask) >>> shift);
+            chunks = new ByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) {
+                chunks[i] = allocate(1 << shift);
+            }
+        }
+        index = 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#isEmpty()
+     */
+    @Override
+    public boolean isEmpty() {
+        open();
+        return index == 0;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#capacity()
+     */
+    @Override
+    public int capacity() {
+        ByteBuffer[] chunks = open();
+        if (chunkCount == 1) {
+            return chunks[0].capacity() / recordSize;
+        }
+        return (int) Math.min((long) chunkCount << shift, Integer.MAX_VALUE);
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#size()
+     */
+    @Override
+    public int size() {
+        open();
+        return index;
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#get(int)
+     */
+    @Override
+    public T get(int slot) throws IllegalArgumentException {
+        ByteBuffer[] chunks = open();
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= index) throw new IllegalArgumentException();
+
+        return codec.read(chunks[slot >>> shift], (slot & mask) * recordSize);
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#set(int, java.lang.Object)
+     */
+    @Override
+    public void set(int slot, T data) throws IllegalArgumentException {
+        ByteBuffer[] chunks = open();
+        if (slot < 0 ) throw new IllegalArgumentException();
+        if (slot >= index) throw new IllegalArgumentException();
+        if (data == null) throw new IllegalArgumentException();
+
+        codec.write(chunks[slot >>> shift], (slot & mask) * recordSize, data);
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#add(java.lang.Object)
+     */
+    @Override
+    public void add(T data) {
+        open();
+        if (data == null) throw new IllegalArgumentException();
+
+        if (index >= capacity()) regrow();
+        codec.write(chunks[index >>> shift], (index & mask) * recordSize, data);
+        index++;
+    }
+
+    /**
+     * Doubles a lone first chunk, moving the old records over with a single
+     * bulk copy and freeing the old buffer.  Once the first chunk is full
+     * sized, adds another chunk instead and copies nothing.
+     */
+    private void regrow() {
+        int chunkRecords = 1 << shift;
+        int capacity = capacity();
+
+        if (chunkCount == 1 && capacity < chunkRecords) {
+            int newCapacity = (int) Math.min(Math.max(capacity * 2L, 1), chunkRecords);
+            ByteBuffer old = chunks[0];
+            ByteBuffer moved = old.duplicate();
+            moved.clear().limit(index * recordSize);
+
+            ByteBuffer grown = allocate(newCapacity);
+            grown.put(moved);
+            grown.clear();
+            chunks[0] = grown;
+            free(old);
+            return;
+        }
+
+        if (capacity == Integer.MAX_VALUE) {
+            throw new IllegalStateException("off heap array cannot hold more than Integer.MAX_VALUE records");
+        }
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        chunks[chunkCount++] = allocate(chunkRecords);
+    }
+
+    /* (non-Javadoc)
+     * @see GrowableArray#remove()
+     */
+    @Override
+    public T remove() {
+        ByteBuffer[] chunks = open();
+        if (index == 0) return null;
+        int slot = index - 1;
+        T data = codec.read(chunks[slot >>> shift], (slot & mask) * recordSize);
+        index--;
+        return data;
+    }
+
+    /**
+     * Frees the direct buffers right away, without waiting for the garbage
+     * collector.  Any later call other than close throws IllegalStateException.
+     */
+    @Override
+    public void close() {
+        if (chunks == null) return;
+
+        ByteBuffer[] closing = chunks;
+        int count = chunkCount;
+        // forget the buffers before freeing them, so nothing can touch freed memory
+        chunks = null;
+        chunkCount = 0;
+        index = 0;
+        for (int i = 0; i < count; i++) {
+            free(closing[i]);
+        }
+    }
+
+    /**
+     * @return the chunks, if the array has not been closed
+     */
+    private ByteBuffer[] open() {
+        if (chunks == null) throw new IllegalStateException("array is closed");
+        return chunks;
+    }
+
+    /**
+     * @param capacity number of records the buffer has to hold
+     * @return a new direct buffer in the platform's byte order
+     */
+    private ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity * recordSize).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Hands a direct buffer's memory back to the system now.  The buffer must
+     * not be used again.  If this VM has no Unsafe.invokeCleaner the buffer is
+     * just dropped and freed when it is collected.
+     * @param buffer a buffer from allocate, not a slice or duplicate of one
+     */
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) return;
+
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            // leave it to the collector
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+
+import static org.junit.Assert.*;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ * OffHeapGrowableArrayTest.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class OffHeapGrowableArrayTest {
+    OffHeapGrowableArray<Long> array;
+
+    @Before
+    public void setUp() {
+        array = new OffHeapGrowableArray<Long>(new LongRecordCodec());
+    }
+
+    @Test
+    public void testAddGetSet() {
+        for (long i = 0; i < 6; i++) {
+            array.add(i * 1000000000000L);
+        }
+
+        assertEquals(6, array.size());
+        assertEquals(Long.valueOf(3000000000000L), array.get(3));
+        array.set(3, -7L);
+        assertEquals(Long.valueOf(-7L), array.get(3));
+        assertEquals(Long.valueOf(5000000000000L), array.remove());
+        assertEquals(5, array.size());
+    }
+
+    @Test
+    public void testRegrowKeepsRecords() {
+        for (long i = 0; i < 23; i++) {
+            array.add(i);
+        }
+
+        assertEquals(40, array.capacity());
+        assertEquals(23, array.size());
+        for (int i = 0; i < 23; i++) {
+            assertEquals(Long.valueOf(i), array.get(i));
+        }
+    }
+
+    @Test
+    public void testRemoveEmpty() {
+        assertNull(array.remove());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetOutOfRange() {
+        array.add(1L);
+        array.get(1);
+    }
+
+    @Test
+    public void testChunks() {
+        // 64 byte chunks hold 8 longs each
+        OffHeapGrowableArray<Long> chunked = new OffHeapGrowableArray<Long>(new LongRecordCodec(), 3, 64);
+        for (long i = 0; i < 100; i++) {
+            chunked.add(i * 3);
+        }
+
+        assertEquals(104, chunked.capacity());
+        assertEquals(100, chunked.size());
+        chunked.set(57, -1L);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Long.valueOf(i == 57 ? -1 : i * 3), chunked.get(i));
+        }
+        assertEquals(Long.valueOf(297), chunked.remove());
+        chunked.close();
+    }
+
+    @Test
+    public void testCloseFreesMemory() {
+        OffHeapGrowableArray<Long> big = new OffHeapGrowableArray<Long>(new LongRecordCodec(), 1 << 20);
+        long used = directMemoryUsed();
+
+        big.close();
+        // freed without a collection, so the direct pool shrinks straight away
+        assertTrue(directMemoryUsed() <= used - 8 * (1 << 20));
+        big.close();
+    }
+
+    /**
+     * @return bytes currently held by direct buffers in this VM
+     */
+    private static long directMemoryUsed() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) {
+                return pool.getMemoryUsed();
+            }
+        }
+        throw new IllegalStateException("no direct buffer pool");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUseAfterClose() {
+        array.add(1L);
+        array.close();
+        array.add(2L);
+    }
+
+    @Test
+    public void testEveryCallAfterCloseThrows() {
+        array.add(1L);
+        array.close();
+        array.close();
+        List<Runnable> calls = Arrays.<Runnable>asList(
+            () -> array.size(), () -> array.isEmpty(), () -> array.capacity(),
+            () -> array.get(0), () -> array.set(0, 2L), () -> array.add(2L),
+            () -> array.remove());
+        for (Runnable call : calls) {
+            try {
+                call.run();
+                fail();
+            } catch (IllegalStateException e) {
+                // closed
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * RecordCodec.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts values to and from fixed-width records inside a ByteBuffer.
+ * Used by the GrowableArrays that keep their data outside the java heap.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public interface RecordCodec<T> {
+       /**
+        *
+        * @return the number of bytes every record takes, must be the same for every value
+        */
+       int recordSize();
+
+       /**
+        * Writes data into the buffer starting at offset.  Must not touch the
+        * buffer's position or limit, and must write exactly recordSize() bytes.
+        *
+        * @param buffer the buffer to write into
+        * @param offset the byte offset of the record
+        * @param data the value to write
+        */
+       void write(ByteBuffer buffer, int offset, T data);
+
+       /**
+        * Reads the record starting at offset.  Must not touch the buffer's
+        * position or limit.
+        *
+        * @param buffer the buffer to read from
+        * @param offset the byte offset of the record
+        * @return the value held in the record
+        */
+       T read(ByteBuffer buffer, int offset);
+}
@@ -0,0 +1,52 @@
+/*
+ * ShrinkingGrowthPolicy.java
+ *
+ * Version 1.0
+ * Copyright 2011 BobSoft Inc
+ */
+
+/**
+ * Grows like another policy, but halves the capacity once the array drops to
+ * a quarter full.  Waiting for a quarter instead of a half leaves a gap
+ * between the grow and shrink points, so adding and removing around one size
+ * cannot copy the array back and forth on every call.
+ *
+ * @author Zack Sparks
+ * @version 1.0
+ *
+ */
+public class ShrinkingGrowthPolicy implements GrowthPolicy {
+    /** never shrink below this capacity */
+    private static final int MIN_CAPACITY = 10;
+
+    /** decides how to grow */
+    private final GrowthPolicy growth;
+
+    /**
+     * Makes a policy that doubles and shrinks at a quarter full
+     */
+    public ShrinkingGrowthPolicy() {
+        this(new MultiplicativeGrowthPolicy());
+    }
+
+    /**
+     * @param growth the policy used to grow the array
+     */
+    public ShrinkingGrowthPolicy(GrowthPolicy growth) {
+        if (growth == null) throw new IllegalArgumentException();
+        this.growth = growth;
+    }
+
+    @Override
+    public int grow(int capacity, int minCapacity) {
+        return growth.grow(capacity, minCapacity);
+    }
+
+    @Override
+    public int shrink(int capacity, int size) {
+        if (capacity > MIN_CAPACITY && size <= capacity / 4) {
+            return Math.max(capacity / 2, MIN_CAPACITY);
+        }
+        return capacity;
+    }
+}
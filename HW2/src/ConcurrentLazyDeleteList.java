@@ -0,0 +1,376 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A thread-safe LazyDeleteList that never locks.
+ *
+ * Each node's item is an AtomicMarkableReference whose mark is the lazy delete
+ * flag, so remove is a single compare-and-set from (data, live) to (data, deleted),
+ * and add can revive a deleted node by swapping in new data and clearing the
+ * mark in one step.  Deleted nodes wait in a lock-free (Treiber) stack until
+ * add reuses them or compress claims them.
+ *
+ * Physical removal follows Harris and Michael: compress marks a claimed
+ * node's next reference so nothing can be linked after it, then unlinks it
+ * from its predecessor with a compare-and-set.  Every traversal (add, remove,
+ * contains and iterators) that runs into a marked node helps unlink it, so no
+ * thread ever waits for a compress that has stalled half way.
+ *
+ * A node is dead once compress has claimed it or clear has cut it off: its
+ * item is swapped for (null, deleted) and its next is marked, so it can
+ * never be revived or linked after.  Whoever makes that swap takes the node
+ * off count or deletedCount, so the counts only ever cover nodes still
+ * linked from head.
+ *
+ * size(), deletedNodeCount() and iterators are exact when no other thread is
+ * changing the list, and a consistent-enough snapshot otherwise.
+ * @author Zack Sparks
+ * @version 1.0
+ * */
+public class ConcurrentLazyDeleteList<T> implements LazyDeleteList<T>, Iterable<T> {
+    /** sentinel before the first node, never deleted */
+    private final Node<T> head;
+    /** a hint at the last node, may lag behind or point at an unlinked node */
+    private final AtomicReference<Node<T>> tail;
+    private final AtomicInteger count, deletedCount;
+    /** top of the stack of deleted nodes available for reuse */
+    private final AtomicReference<PoolCell<T>> deleted;
+
+    public ConcurrentLazyDeleteList() {
+        head = new Node<>(null);
+        tail = new AtomicReference<>(head);
+        count = new AtomicInteger();
+        deletedCount = new AtomicInteger();
+        deleted = new AtomicReference<>();
+    }
+
+    public int deletedNodeCount() {
+        return deletedCount.get();
+    }
+
+    public int compress() {
+        int nodesDeleted = markDeleted();
+
+        if (nodesDeleted > 0) {
+            unlinkMarked();
+        }
+        return nodesDeleted;
+    }
+
+    /**
+     * The first half of compress: claims every deleted node and marks it for
+     * unlinking, but leaves it linked for traversals to unlink
+     * @return the number of nodes marked
+     */
+    int markDeleted() {
+        int nodesDeleted = 0;
+        Node<T> claimed;
+
+        // claimed nodes are ours alone, so no add can revive them once they are dead
+        while ((claimed = popDeleted()) != null) {
+            if (kill(claimed)) {
+                markNext(claimed);
+                nodesDeleted++;
+            }
+        }
+        return nodesDeleted;
+    }
+
+    /**
+     * Makes a node dead, taking it off count if it was live and off
+     * deletedCount if it was deleted
+     * @param node the node to kill
+     * @return false if it was already dead
+     */
+    private boolean kill(Node<T> node) {
+        boolean[] marked = {false};
+
+        while (true) {
+            T data = node.item.get(marked);
+            if (data == null) {
+                return false;
+            }
+            if (node.item.compareAndSet(data, null, marked[0], true)) {
+                (marked[0] ? deletedCount : count).decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Marks a node's next so nothing can be linked after it
+     * @param node the node being unlinked or cut off
+     * @return the node's next, which can no longer change
+     */
+    private Node<T> markNext(Node<T> node) {
+        Node<T> succ = node.next.getReference();
+        while (!node.next.attemptMark(succ, true)) {
+            succ = node.next.getReference();
+        }
+        return succ;
+    }
+
+    /**
+     * Walks from head, unlinking every node whose next is marked
+     */
+    private void unlinkMarked() {
+        boolean[] marked = {false};
+
+        retry:
+        while (true) {
+            Node<T> pred = head;
+            Node<T> curr = pred.next.getReference();
+
+            while (curr != null) {
+                Node<T> succ = curr.next.get(marked);
+                if (marked[0]) {
+                    if (!pred.next.compareAndSet(curr, succ, false, false)) {
+                        continue retry;
+                    }
+                    tail.compareAndSet(curr, pred);
+                } else {
+                    pred = curr;
+                }
+                curr = succ;
+            }
+            return;
+        }
+    }
+
+    /**
+     * Cuts the nodes off head in one step, then walks them marking each
+     * dead, so an add or remove caught half way through either lands in the
+     * new list or is taken back off the counts.  The walk makes this O(n).
+     */
+    public void clear() {
+        Node<T> first;
+        boolean[] marked = {false};
+        do {
+            first = head.next.get(marked);
+        } while (!head.next.compareAndSet(first, null, false, false));
+        tail.set(head);
+
+        for (Node<T> node = first; node != null; ) {
+            Node<T> succ = markNext(node);
+            kill(node);
+            node = succ;
+        }
+
+        // drop the dead nodes from the pool, keeping any the new list has deleted since
+        for (PoolCell<T> cell = deleted.getAndSet(null); cell != null; cell = cell.below) {
+            if (cell.node.item.getReference() != null) {
+                pushDeleted(cell.node);
+            }
+        }
+    }
+
+    public void add(T data) {
+        // counted first, so a clear that kills the node can't take count below zero
+        count.incrementAndGet();
+
+        Node<T> reuse;
+        while ((reuse = popDeleted()) != null) {
+            // only clear can change a popped node's item, and only to null
+            T old = reuse.item.getReference();
+            if (old != null && reuse.item.compareAndSet(old, data, true, false)) {
+                deletedCount.decrementAndGet();
+                return;
+            }
+        }
+        append(new Node<>(data));
+    }
+
+    /**
+     * Links node after the last node of the list
+     * @param node the new node
+     */
+    private void append(Node<T> node) {
+        Node<T> last = tail.get();
+
+        while (true) {
+            Node<T> succ = nextOf(last);
+
+            if (succ != null) {
+                last = succ;
+            } else if (last.next.compareAndSet(null, node, false, false)) {
+                tail.compareAndSet(last, node);
+                return;
+            } else if (last.next.isMarked()) {
+                // last is being unlinked or was cut off by clear; walk from the start
+                last = head;
+            }
+        }
+    }
+
+    /**
+     * Steps from pred to the node after it, first unlinking any nodes in
+     * between that are being unlinked.  If pred is being unlinked itself its
+     * next can't change any more, and that node is returned as is.
+     * @param pred the node to step from
+     * @return the next node, null at the end of the list
+     */
+    private Node<T> nextOf(Node<T> pred) {
+        boolean[] marked = {false};
+        Node<T> curr = pred.next.getReference();
+
+        while (curr != null) {
+            Node<T> succ = curr.next.get(marked);
+            if (!marked[0]) {
+                return curr;
+            }
+
+            if (pred.next.compareAndSet(curr, succ, false, false)) {
+                tail.compareAndSet(curr, pred);
+                curr = succ;
+            } else {
+                curr = pred.next.get(marked);
+                if (marked[0]) {
+                    return curr;
+                }
+            }
+        }
+        return null;
+    }
+
+    public boolean remove(T item) {
+        boolean[] marked = {false};
+
+        for (Node<T> cursor = nextOf(head); cursor != null; cursor = nextOf(cursor)) {
+            T data = cursor.item.get(marked);
+
+            if (!marked[0] && data.equals(item)) {
+                // counted first, so a clear that kills the node can't take deletedCount below zero
+                deletedCount.incrementAndGet();
+                if (cursor.item.compareAndSet(data, data, false, true)) {
+                    count.decrementAndGet();
+                    pushDeleted(cursor);
+                    return true;
+                }
+                deletedCount.decrementAndGet();
+            }
+        }
+
+        return false;
+    }
+
+    public boolean contains(T data) {
+        boolean[] marked = {false};
+
+        for (Node<T> cursor = nextOf(head); cursor != null; cursor = nextOf(cursor)) {
+            T item = cursor.item.get(marked);
+
+            if (!marked[0] && item.equals(data)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return count.get() == 0;
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    public Iterator<T> iterator() {
+        compress();
+        return new ConcurrentListIterator();
+    }
+
+    /**
+     * @param node a node that was just deleted
+     */
+    private void pushDeleted(Node<T> node) {
+        PoolCell<T> cell = new PoolCell<>(node);
+        do {
+            cell.below = deleted.get();
+        } while (!deleted.compareAndSet(cell.below, cell));
+    }
+
+    /**
+     * A fresh cell is made for every push, so a cell popped and pushed again
+     * can't fool this compare-and-set (no ABA problem).
+     * @return a deleted node now owned by the caller, or null if there are none
+     */
+    private Node<T> popDeleted() {
+        PoolCell<T> top;
+        do {
+            top = deleted.get();
+            if (top == null) {
+                return null;
+            }
+        } while (!deleted.compareAndSet(top, top.below));
+        return top.node;
+    }
+
+    /**
+     * Walks the nodes as they are while it runs, skipping deleted ones
+     */
+    private class ConcurrentListIterator implements Iterator<T> {
+        private Node<T> cursor;
+        private T nextData;
+
+        public ConcurrentListIterator() {
+            cursor = head;
+            advance();
+        }
+
+        private void advance() {
+            boolean[] marked = {false};
+            nextData = null;
+
+            while (nextData == null && cursor != null) {
+                cursor = nextOf(cursor);
+                if (cursor != null) {
+                    T data = cursor.item.get(marked);
+                    if (!marked[0]) {
+                        nextData = data;
+                    }
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return nextData != null;
+        }
+
+        public T next() {
+            if (!hasNext()) {throw new NoSuchElementException();}
+
+            T data = nextData;
+            advance();
+            return data;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove isn't supported");
+        }
+    }
+
+    private static class Node<T> {
+        /** the data, marked when lazily deleted, null once the node is dead */
+        public final AtomicMarkableReference<T> item;
+        /** the next node, marked when this node is being unlinked */
+        public final AtomicMarkableReference<Node<T>> next;
+
+        public Node(T data) {
+            item = new AtomicMarkableReference<>(data, false);
+            next = new AtomicMarkableReference<>(null, false);
+        }
+    }
+
+    private static class PoolCell<T> {
+        public final Node<T> node;
+        public PoolCell<T> below;
+
+        public PoolCell(Node<T> node) {
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs every LazyDeleteList test against ConcurrentLazyDeleteList, plus
+ * tests with several threads at once
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class ConcurrentLazyDeleteListTest extends LazyDeleteListTest {
+
+    @Before
+    @Override
+    public void setUp() {
+        list2test = new ConcurrentLazyDeleteList<String>();
+    }
+
+    @Test
+    public void testManyThreads() throws InterruptedException {
+        final int perThread = 2000;
+        Thread[] workers = new Thread[8];
+
+        for (int t = 0; t < workers.length; t++) {
+            final int id = t;
+            workers[t] = new Thread() {
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        list2test.add(id + ":" + i);
+                        if (i % 2 == 1) {
+                            list2test.remove(id + ":" + (i - 1));
+                        }
+                        if (i % 500 == 0) {
+                            list2test.compress();
+                        }
+                    }
+                }
+            };
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(workers.length * perThread / 2, list2test.size());
+        for (int t = 0; t < workers.length; t++) {
+            assertTrue(list2test.contains(t + ":1"));
+            assertFalse(list2test.contains(t + ":0"));
+        }
+
+        list2test.compress();
+        assertEquals(0, list2test.deletedNodeCount());
+        int seen = 0;
+        for (String s : list2test) {
+            seen++;
+        }
+        assertEquals(list2test.size(), seen);
+    }
+
+    /**
+     * A compress stopped between marking and unlinking mustn't hold up
+     * anyone else; traversals unlink the marked nodes themselves
+     */
+    @Test(timeout = 5000)
+    public void testStalledCompress() {
+        ConcurrentLazyDeleteList<String> list = (ConcurrentLazyDeleteList<String>) list2test;
+        for (int i = 0; i < 5; i++) {
+            list.add("A" + i);
+        }
+        list.remove("A3");
+        list.remove("A4");
+        assertEquals(2, list.markDeleted());
+
+        // the tail is marked, so this add has to unlink it to get past
+        list.add("B");
+        list.add("C");
+        assertTrue(list.contains("C"));
+        assertFalse(list.contains("A4"));
+        assertTrue(list.remove("A1"));
+
+        String[] expected = {"A0", "A2", "B", "C"};
+        int i = 0;
+        for (String s : list) {
+            assertEquals(expected[i++], s);
+        }
+        assertEquals(4, i);
+        assertEquals(4, list.size());
+    }
+
+    @Test
+    public void testClearWhileWriting() throws InterruptedException {
+        final AtomicBoolean done = new AtomicBoolean();
+        Thread[] workers = new Thread[4];
+
+        for (int t = 0; t < workers.length; t++) {
+            final Random random = new Random(t);
+            workers[t] = new Thread() {
+                public void run() {
+                    while (!done.get()) {
+                        String item = "k" + random.nextInt(200);
+                        int op = random.nextInt(10);
+                        if (op < 5) {
+                            list2test.add(item);
+                        } else if (op < 9) {
+                            list2test.remove(item);
+                        } else {
+                            list2test.compress();
+                        }
+                    }
+                }
+            };
+            workers[t].start();
+        }
+        for (int i = 0; i < 200; i++) {
+            Thread.sleep(1);
+            list2test.clear();
+        }
+        done.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // an add or remove caught by a clear must not leave the counts off
+        List<String> items = new ArrayList<>();
+        for (String s : list2test) {
+            items.add(s);
+        }
+        assertEquals(items.size(), list2test.size());
+        assertEquals(0, list2test.deletedNodeCount());
+        for (String s : items) {
+            assertTrue(list2test.contains(s));
+            assertTrue(list2test.remove(s));
+        }
+        assertEquals(0, list2test.size());
+        assertTrue(list2test.isEmpty());
+        assertEquals(items.size(), list2test.deletedNodeCount());
+        list2test.add("after");
+        assertTrue(list2test.contains("after"));
+        assertEquals(1, list2test.size());
+    }
+}
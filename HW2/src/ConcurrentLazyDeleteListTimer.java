@@ -0,0 +1,85 @@
+/**
+ * Times a mix of add, remove and contains from 1, 4 and 16 threads on a
+ * LazyDeleteLinkedList behind one lock and on ConcurrentLazyDeleteList.
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class ConcurrentLazyDeleteListTimer {
+    public static final int OPS_PER_THREAD = 20000;
+    public static final int KEY_RANGE = 512;
+    public static final int[] THREAD_COUNTS = {1, 4, 16};
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Timing Test");
+        System.out.println(OPS_PER_THREAD + " operations per thread over " + KEY_RANGE + " keys");
+
+        for (int threads : THREAD_COUNTS) {
+            final LazyDeleteList<Integer> locked = new LazyDeleteLinkedList<>();
+            long time = time(threads, locked, true);
+            System.out.println("\n" + threads + " threads");
+            System.out.println("Locked LazyDeleteLinkedList: " + time);
+
+            time = time(threads, new ConcurrentLazyDeleteList<Integer>(), false);
+            System.out.println("ConcurrentLazyDeleteList: " + time);
+        }
+    }
+
+    /**
+     * @param threads how many threads to run at once
+     * @param list the list to hammer
+     * @param lock whether each call has to hold the list's monitor
+     * @return nanoseconds until every thread finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static long time(int threads, final LazyDeleteList<Integer> list, final boolean lock)
+            throws InterruptedException {
+        for (int i = 0; i < KEY_RANGE; i++) {
+            list.add(i);
+        }
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread() {
+                public void run() {
+                    int key = seed;
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        key = (key * 31 + 7) % KEY_RANGE;
+                        if (lock) {
+                            synchronized (list) {
+                                step(list, key, i);
+                            }
+                        } else {
+                            step(list, key, i);
+                        }
+                    }
+                }
+            };
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * One operation: mostly contains, with some removes and adds
+     */
+    static void step(LazyDeleteList<Integer> list, int key, int i) {
+        switch (i % 10) {
+            case 0:
+                list.remove(key);
+                break;
+            case 1:
+                list.add(key);
+                break;
+            default:
+                list.contains(key);
+        }
+    }
+}
@@ -1,23 +1,59 @@
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Stack;
+import java.util.function.Predicate;
 
 /**
  * @author Zack Sparks
  * @version 1.0
  * */
 public class LazyDeleteLinkedList<T> implements LazyDeleteList<T>, Iterable<T> {
+    /** estimated bytes per node: header, data/left/right/outer references and the flag */
+    private static final int NODE_BYTES = 32;
+    /** estimated bytes for a deleted node's slot in the deleted stack */
+    private static final int STACK_SLOT_BYTES = 4;
+
     private Node<T> head;
     private Node<T> tail;
     private int count, deletedCount;
     private Stack<Node<T>> deleted;
+    /** live nodes by value, null unless the list was made indexed */
+    private HashMap<T, ArrayDeque<Node<T>>> index;
+    /** auto compaction runs once deletedCount / size() goes over this, 0 turns it off */
+    private double compactThreshold;
+    /** most nodes unlinked by one auto compaction step */
+    private int compactBatch;
+    private long lastCompactionNanos, totalCompactionNanos;
+    /** once more than highWatermark nodes are deleted, unlink down to lowWatermark */
+    private int highWatermark, lowWatermark;
+    /** bumped by every change, so iterators can tell the list changed under them */
+    private int modCount;
 
     public LazyDeleteLinkedList() {
+        this(false);
+    }
+
+    /**
+     * @param indexed whether to keep a hash index of the live nodes, which makes
+     *                contains and remove expected O(1) at the cost of extra memory.
+     *                When indexed, remove drops the copy that was added earliest
+     *                rather than the first one found from head.
+     */
+    public LazyDeleteLinkedList(boolean indexed) {
         head = null;
         tail = null;
         count = 0;
         deletedCount = 0;
         deleted = new Stack<>();
+        index = indexed ? new HashMap<T, ArrayDeque<Node<T>>>() : null;
+        compactThreshold = 0;
+        compactBatch = 0;
+        highWatermark = Integer.MAX_VALUE;
+        lowWatermark = Integer.MAX_VALUE;
     }
 
     public int deletedNodeCount() {
@@ -25,39 +61,149 @@ public class LazyDeleteLinkedList<T> implements LazyDeleteList<T>, Iterable<T> {
     }
 
     public int compress() {
+        return compress(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Unlinks at most maxNodes deleted nodes, so a big compaction can be
+     * spread over many calls instead of one long pause.
+     * This is O(maxNodes)
+     * @param maxNodes the most deleted nodes to unlink
+     * @return the number of nodes removed
+     */
+    public int compress(int maxNodes) {
+        long start = System.nanoTime();
         int nodesDeleted = 0;
 
-        while (!deleted.empty()) {
+        while (nodesDeleted < maxNodes && !deleted.empty()) {
             Node<T> tBD = deleted.pop();
 
-            if (deletedCount == 1 && count == 0) {
-                head = null;
-                tail = null;
-            } else if (tBD == tail) {
-                tail = tBD.left;
-                tail.left = null;
-            } else if (tBD == head) {
+            if (tBD.left == null) {
                 head = tBD.right;
-                head.left = null;
             } else {
                 tBD.left.right = tBD.right;
             }
+            if (tBD.right == null) {
+                tail = tBD.left;
+            } else {
+                tBD.right.left = tBD.left;
+            }
+            tBD.data = null;
             nodesDeleted++;
             deletedCount--;
         }
 
+        if (nodesDeleted > 0) {
+            modCount++;
+        }
+
+        lastCompactionNanos = System.nanoTime() - start;
+        totalCompactionNanos += lastCompactionNanos;
         return nodesDeleted;
     }
 
+    /**
+     * Turns on incremental compaction: after each add or remove, while the
+     * tombstone ratio is over threshold, up to batch deleted nodes are unlinked.
+     * @param threshold the tombstone ratio that starts compaction, 0 turns it off
+     * @param batch the most nodes unlinked per add or remove
+     */
+    public void setAutoCompaction(double threshold, int batch) {
+        if (threshold < 0 || batch < 0) {
+            throw new IllegalArgumentException("threshold and batch can't be negative");
+        }
+        compactThreshold = threshold;
+        compactBatch = batch;
+    }
+
+    /**
+     * Bounds how many deleted nodes the list keeps around for reuse.  Once
+     * more than highWatermark nodes are deleted, the extra nodes are unlinked
+     * until only lowWatermark remain, and the collector can have them.
+     * The gap between the two keeps a list that hovers around the limit from
+     * compacting on every remove.
+     * @param lowWatermark how many deleted nodes to keep after reclaiming
+     * @param highWatermark the most deleted nodes to retain
+     */
+    public void setTombstoneLimits(int lowWatermark, int highWatermark) {
+        if (lowWatermark < 0 || highWatermark < lowWatermark) {
+            throw new IllegalArgumentException("need 0 <= lowWatermark <= highWatermark");
+        }
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        autoCompact();
+    }
+
+    /**
+     * Runs one auto compaction step if the list is over its threshold, and
+     * reclaims deleted nodes if there are more than the high watermark
+     */
+    private void autoCompact() {
+        if (compactThreshold > 0 && compactBatch > 0 && deletedCount > 0
+                && tombstoneRatio() > compactThreshold) {
+            compress(compactBatch);
+        }
+        if (deletedCount > highWatermark) {
+            compress(deletedCount - lowWatermark);
+        }
+    }
+
+    /**
+     * Estimated memory held by the nodes of undeleted elements, not counting
+     * the elements themselves
+     * @return the bytes of the live nodes
+     */
+    public long liveBytes() {
+        return (long) count * NODE_BYTES;
+    }
+
+    /**
+     * Estimated memory held by deleted nodes waiting to be reused or compressed
+     * @return the bytes of the deleted nodes and their deleted stack slots
+     */
+    public long retainedBytes() {
+        return (long) deletedCount * (NODE_BYTES + STACK_SLOT_BYTES);
+    }
+
+    /**
+     * @return deleted nodes per undeleted element, infinite if every node is deleted
+     */
+    public double tombstoneRatio() {
+        if (deletedCount == 0) {
+            return 0;
+        }
+        return count == 0 ? Double.POSITIVE_INFINITY : (double) deletedCount / count;
+    }
+
+    /**
+     * @return nanoseconds spent in the most recent compress call
+     */
+    public long lastCompactionNanos() {
+        return lastCompactionNanos;
+    }
+
+    /**
+     * @return nanoseconds spent in every compress call so far
+     */
+    public long totalCompactionNanos() {
+        return totalCompactionNanos;
+    }
+
     public void clear() {
         head = null;
         tail = null;
         count = 0;
         deletedCount = 0;
         deleted = new Stack<>();
+        if (index != null) {
+            index.clear();
+        }
+        modCount++;
     }
 
     public void add(T data) {
+        Node<T> added;
+
         if (deleted.empty()) {
             if (head == null) {
                 head = new Node<T>(data);
@@ -66,15 +212,28 @@ public class LazyDeleteLinkedList<T> implements LazyDeleteList<T>, Iterable<T> {
                 tail.right = new Node<>(data, tail, null);
                 tail = tail.right;
             }
+            added = tail;
         } else {
             Node<T> insert = deleted.pop();
             insert.data = data;
             insert.isDeleted = false;
+            added = insert;
 
             deletedCount--;
         }
 
+        if (index != null) {
+            ArrayDeque<Node<T>> nodes = index.get(data);
+            if (nodes == null) {
+                nodes = new ArrayDeque<>(1);
+                index.put(data, nodes);
+            }
+            nodes.addLast(added);
+        }
+
         count++;
+        modCount++;
+        autoCompact();
     }
 
     public boolean remove(T item) {
@@ -82,14 +241,27 @@ public class LazyDeleteLinkedList<T> implements LazyDeleteList<T>, Iterable<T> {
             return false;
         }
 
+        if (index != null) {
+            ArrayDeque<Node<T>> nodes = index.get(item);
+            if (nodes == null) {
+                return false;
+            }
+
+            Node<T> found = nodes.pollFirst();
+            if (nodes.isEmpty()) {
+                index.remove(item);
+            }
+            tombstone(found);
+            autoCompact();
+            return true;
+        }
+
         Node<T> cursor = head;
 
         while (cursor != null) {
             if (cursor.data.equals(item) && !cursor.isDeleted) {
-                cursor.isDeleted = true;
-                deleted.push(cursor);
-                deletedCount++;
-                count--;
+                tombstone(cursor);
+                autoCompact();
                 return true;
             }
 
@@ -99,7 +271,70 @@ public class LazyDeleteLinkedList<T> implements LazyDeleteList<T>, Iterable<T> {
         return false;
     }
 
+    /**
+     * Lazily deletes a live node that is already out of the index
+     * @param node the node to delete
+     */
+    private void tombstone(Node<T> node) {
+        node.isDeleted = true;
+        deleted.push(node);
+        deletedCount++;
+        count--;
+        modCount++;
+    }
+
+    /**
+     * Lazily deletes a live node, taking it out of the index first
+     * @param node the node to delete
+     */
+    private void unindexAndTombstone(Node<T> node) {
+        if (index != null) {
+            ArrayDeque<Node<T>> nodes = index.get(node.data);
+            nodes.remove(node);
+            if (nodes.isEmpty()) {
+                index.remove(node.data);
+            }
+        }
+        tombstone(node);
+    }
+
+    /**
+     * Lazily deletes every element that matches filter in a single pass.
+     * This is an O(n) operation
+     * @param filter says which elements to delete
+     * @return true if anything was deleted
+     */
+    public boolean removeIf(Predicate<? super T> filter) {
+        boolean removed = false;
+
+        for (Node<T> cursor = head; cursor != null; cursor = cursor.right) {
+            if (!cursor.isDeleted && filter.test(cursor.data)) {
+                unindexAndTombstone(cursor);
+                removed = true;
+            }
+        }
+
+        if (removed) {
+            autoCompact();
+        }
+        return removed;
+    }
+
+    /**
+     * Lazily deletes every element that is not in keep, in a single pass.
+     * This is O(n) times the cost of keep.contains
+     * @param keep the elements to keep
+     * @return true if anything was deleted
+     */
+    public boolean retainAll(Collection<?> keep) {
+        return removeIf(item -> !keep.contains(item));
+    }
+
     public boolean contains(T data) {
+        if (index != null) {
+            return index.containsKey(data);
+        }
+
         Node<T> cursor = head;
 
         while (cursor != null) {
@@ -113,6 +348,24 @@ public class LazyDeleteLinkedList<T> implements LazyDeleteList<T>, Iterable<T> {
         return false;
     }
 
+    /**
+     * Rough size of the hash index, counting the map's table and entries and
+     * the per-value node queues, with compressed 4 byte references.
+     * @return the estimated bytes used by the index, 0 if the list is not indexed
+     */
+    public long indexMemoryBytes() {
+        if (index == null) {
+            return 0;
+        }
+
+        int table = Integer.highestOneBit(Math.max((int) (index.size() / 0.75f), 1) * 2 - 1);
+        long bytes = 48 + 16 + 4L * table;
+        // HashMap.Node + ArrayDeque + its array header and one slot per node
+        bytes += (32 + 24 + 16) * (long) index.size();
+        bytes += 4L * count;
+        return bytes;
+    }
+
     public boolean isEmpty() {
         return count == 0;
     }
@@ -122,34 +375,56 @@ public class LazyDeleteLinkedList<T> implements LazyDeleteList<T>, Iterable<T> {
     }
 
     public Iterator<T> iterator() {
-        return new LazyListIterator<T>(head);
+        compress();
+        return new LazyListIterator(head);
     }
 
-    private class LazyListIterator<T> implements Iterator {
+    /**
+     * Fails fast with a ConcurrentModificationException if the list is changed
+     * other than through this iterator.  remove() lazily deletes the element
+     * last returned in O(1).
+     */
+    private class LazyListIterator implements Iterator<T> {
         private Node<T> cursor;
+        private Node<T> lastReturned;
+        private int expectedModCount;
 
-        public LazyListIterator(Node head) {
-            compress();
+        public LazyListIterator(Node<T> head) {
             cursor = head;
+            lastReturned = null;
+            expectedModCount = modCount;
+            skipDeleted();
         }
 
-        public boolean hasNext() {
-            Node<T> temp = cursor;
+        private void skipDeleted() {
+            while (cursor != null && cursor.isDeleted) {
+                cursor = cursor.right;
+            }
+        }
 
-            return !(temp == null);
+        public boolean hasNext() {
+            return cursor != null;
         }
 
         public T next() {
+            if (modCount != expectedModCount) {throw new ConcurrentModificationException();}
             if (!hasNext()) {throw new NoSuchElementException();}
 
-            Node<T> temp = cursor;
-
+            lastReturned = cursor;
             cursor = cursor.right;
-            return temp.data;
+            skipDeleted();
+            return lastReturned.data;
         }
 
         public void remove() {
-            throw new UnsupportedOperationException("remove isn't supported");
+            if (lastReturned == null) {throw new IllegalStateException("next hasn't been called");}
+            if (modCount != expectedModCount) {throw new ConcurrentModificationException();}
+
+            unindexAndTombstone(lastReturned);
+            // compaction only unlinks deleted nodes, so cursor is still good
+            autoCompact();
+            lastReturned = null;
+            expectedModCount = modCount;
         }
     }
 
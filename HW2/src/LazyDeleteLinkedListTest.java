@@ -0,0 +1,222 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs every LazyDeleteList test against an indexed LazyDeleteLinkedList
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class LazyDeleteLinkedListTest extends LazyDeleteListTest {
+
+    @Before
+    @Override
+    public void setUp() {
+        list2test = new LazyDeleteLinkedList<String>(true);
+    }
+
+    @Test
+    public void testIndexTracksDuplicatesAndReuse() {
+        LazyDeleteLinkedList<String> list = (LazyDeleteLinkedList<String>) list2test;
+        assertEquals(0, new LazyDeleteLinkedList<String>().indexMemoryBytes());
+
+        list.add("A");
+        list.add("B");
+        list.add("A");
+        long withThree = list.indexMemoryBytes();
+        assertTrue("Index should report its memory", withThree > 0);
+
+        assertTrue(list.remove("A"));
+        assertTrue("Second copy should still be indexed", list.contains("A"));
+        list.add("C");
+        assertEquals("Add should have reused the deleted node", 0, list.deletedNodeCount());
+        assertTrue(list.remove("A"));
+        assertFalse(list.contains("A"));
+        assertFalse(list.remove("A"));
+        assertTrue(list.contains("C"));
+
+        list.compress();
+        assertTrue(list.contains("B"));
+        assertTrue(list.contains("C"));
+        list.clear();
+        assertFalse(list.contains("B"));
+    }
+
+    @Test
+    public void testIncrementalCompress() {
+        LazyDeleteLinkedList<String> list = (LazyDeleteLinkedList<String>) list2test;
+        for (int i = 0; i < 10; i++) {
+            list.add("A" + i);
+        }
+        list.remove("A0");
+        list.remove("A5");
+        list.remove("A9");
+
+        assertEquals(3.0 / 7, list.tombstoneRatio(), 1e-9);
+        assertEquals("Should stop after the batch", 2, list.compress(2));
+        assertEquals(1, list.deletedNodeCount());
+        assertEquals(1, list.compress(2));
+        assertEquals(0, list.compress(2));
+        assertEquals(0.0, list.tombstoneRatio(), 0);
+        assertTrue(list.totalCompactionNanos() >= list.lastCompactionNanos());
+
+        Iterator<String> iter = list.iterator();
+        for (int i = 1; i < 9; i++) {
+            if (i != 5) {
+                assertEquals("A" + i, iter.next());
+            }
+        }
+        assertFalse(iter.hasNext());
+    }
+
+    @Test
+    public void testCompressRepairsEnds() {
+        LazyDeleteLinkedList<String> list = (LazyDeleteLinkedList<String>) list2test;
+        for (int i = 0; i < 5; i++) {
+            list.add("A" + i);
+        }
+        list.remove("A0");
+        list.remove("A4");
+        list.remove("A2");
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, list.compress(1));
+        }
+        list.add("B");
+
+        Iterator<String> iter = list.iterator();
+        assertEquals("A1", iter.next());
+        assertEquals("A3", iter.next());
+        assertEquals("B", iter.next());
+        assertFalse(iter.hasNext());
+
+        list.remove("A1");
+        list.remove("A3");
+        list.remove("B");
+        assertEquals(3, list.compress(5));
+        list.add("C");
+        iter = list.iterator();
+        assertEquals("C", iter.next());
+        assertFalse(iter.hasNext());
+        assertTrue(list.contains("C"));
+        assertFalse(list.contains("A3"));
+    }
+
+    @Test
+    public void testAutoCompaction() {
+        LazyDeleteLinkedList<String> list = (LazyDeleteLinkedList<String>) list2test;
+        list.setAutoCompaction(0.5, 1);
+        for (int i = 0; i < 6; i++) {
+            list.add("A" + i);
+        }
+        list.remove("A0");
+        list.remove("A1");
+        assertEquals("Under the threshold nothing is unlinked", 2, list.deletedNodeCount());
+        list.remove("A2");
+        assertEquals("One step should run once over the threshold", 2, list.deletedNodeCount());
+        list.remove("A3");
+        assertEquals(2, list.deletedNodeCount());
+        assertTrue(list.contains("A4"));
+        assertTrue(list.contains("A5"));
+        assertEquals(2, list.compress());
+        assertEquals(2, list.size());
+    }
+
+    /**
+     * This list's iterator supports remove, so calling it before next is
+     * the only error left
+     */
+    @Test
+    @Override
+    public void testIteratorRemoveException() {
+        Iterator<String> iter = list2test.iterator();
+        try {
+            iter.remove();
+            fail("Should have thrown IllegalState for remove before next");
+        } catch (IllegalStateException ex) {
+            assertTrue(true);
+        }
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        for (int i = 0; i < 6; i++) {
+            list2test.add("A" + i);
+        }
+        Iterator<String> iter = list2test.iterator();
+        while (iter.hasNext()) {
+            String s = iter.next();
+            if (s.equals("A0") || s.equals("A3")) {
+                iter.remove();
+            }
+        }
+
+        assertEquals(4, list2test.size());
+        assertEquals(2, list2test.deletedNodeCount());
+        assertFalse(list2test.contains("A3"));
+        assertFalse("Index should have dropped the node", list2test.remove("A0"));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailsFast() {
+        list2test.add("A");
+        list2test.add("B");
+        Iterator<String> iter = list2test.iterator();
+        iter.next();
+        list2test.add("C");
+        iter.next();
+    }
+
+    @Test
+    public void testRemoveIfAndRetainAll() {
+        LazyDeleteLinkedList<String> list = (LazyDeleteLinkedList<String>) list2test;
+        for (int i = 0; i < 10; i++) {
+            list.add("A" + i);
+        }
+
+        assertTrue(list.removeIf(s -> s.compareTo("A5") >= 0));
+        assertFalse(list.removeIf(s -> s.equals("A9")));
+        assertEquals(5, list.size());
+        assertEquals(5, list.deletedNodeCount());
+
+        assertTrue(list.retainAll(Arrays.asList("A1", "A3")));
+        assertEquals(2, list.size());
+        assertTrue(list.contains("A1"));
+        assertFalse(list.contains("A2"));
+        assertEquals(8, list.compress());
+    }
+
+    @Test
+    public void testTombstoneWatermarks() {
+        LazyDeleteLinkedList<String> list = (LazyDeleteLinkedList<String>) list2test;
+        for (int i = 0; i < 20; i++) {
+            list.add("A" + i);
+        }
+        list.setTombstoneLimits(2, 5);
+        long live = list.liveBytes();
+        assertTrue(live > 0);
+
+        for (int i = 0; i < 5; i++) {
+            list.remove("A" + i);
+        }
+        assertEquals("Should retain up to the high watermark", 5, list.deletedNodeCount());
+        long retained = list.retainedBytes();
+        assertTrue(retained > 0);
+
+        list.remove("A5");
+        assertEquals("Should reclaim down to the low watermark", 2, list.deletedNodeCount());
+        assertTrue(list.retainedBytes() < retained);
+        assertEquals(14, list.size());
+        assertEquals(live * 14 / 20, list.liveBytes());
+
+        Iterator<String> iter = list.iterator();
+        for (int i = 6; i < 20; i++) {
+            assertEquals("A" + i, iter.next());
+        }
+        assertFalse(iter.hasNext());
+    }
+}
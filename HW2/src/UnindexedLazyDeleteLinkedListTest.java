@@ -0,0 +1,48 @@
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs every LazyDeleteLinkedList test against the default list, which has
+ * no hash index and finds items with a linear scan
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class UnindexedLazyDeleteLinkedListTest extends LazyDeleteLinkedListTest {
+
+    @Before
+    @Override
+    public void setUp() {
+        list2test = new LazyDeleteLinkedList<String>();
+    }
+
+    /**
+     * Same duplicates and reuse as the indexed list, found by scanning
+     */
+    @Test
+    @Override
+    public void testIndexTracksDuplicatesAndReuse() {
+        LazyDeleteLinkedList<String> list = (LazyDeleteLinkedList<String>) list2test;
+
+        list.add("A");
+        list.add("B");
+        list.add("A");
+        assertEquals("No index, so no index memory", 0, list.indexMemoryBytes());
+
+        assertTrue(list.remove("A"));
+        assertTrue("Second copy should still be found", list.contains("A"));
+        list.add("C");
+        assertEquals("Add should have reused the deleted node", 0, list.deletedNodeCount());
+        assertTrue(list.remove("A"));
+        assertFalse(list.contains("A"));
+        assertFalse(list.remove("A"));
+        assertTrue(list.contains("C"));
+
+        list.compress();
+        assertTrue(list.contains("B"));
+        assertTrue(list.contains("C"));
+        list.clear();
+        assertFalse(list.contains("B"));
+    }
+}
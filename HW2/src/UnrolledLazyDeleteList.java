@@ -0,0 +1,208 @@
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A LazyDeleteList that packs its elements into array chunks instead of
+ * one node per element.  Each chunk keeps a bitmap of which of its slots are
+ * deleted, so a scan walks a few arrays in order rather than chasing a
+ * pointer per element.
+ * @author Zack Sparks
+ * @version 1.0
+ * */
+public class UnrolledLazyDeleteList<T> implements LazyDeleteList<T>, Iterable<T> {
+    /** slots per chunk, one per bit of the deleted bitmap */
+    private static final int CHUNK_SIZE = Long.SIZE;
+
+    private Chunk<T> head;
+    private Chunk<T> tail;
+    private int count, deletedCount;
+    /** chunks that have at least one deleted slot, so add can refill one in O(1) */
+    private ArrayDeque<Chunk<T>> holes;
+
+    public UnrolledLazyDeleteList() {
+        head = null;
+        tail = null;
+        count = 0;
+        deletedCount = 0;
+        holes = new ArrayDeque<>();
+    }
+
+    public int deletedNodeCount() {
+        return deletedCount;
+    }
+
+    public int compress() {
+        int slotsDeleted = deletedCount;
+
+        if (slotsDeleted == 0) {
+            return 0;
+        }
+
+        // slide every live element down to the front, keeping their order
+        Chunk<T> writeChunk = head;
+        int writeSlot = 0;
+
+        for (Chunk<T> readChunk = head; readChunk != null; readChunk = readChunk.next) {
+            for (int i = 0; i < readChunk.used; i++) {
+                if (!readChunk.isDeleted(i)) {
+                    if (writeSlot == CHUNK_SIZE) {
+                        writeChunk = writeChunk.next;
+                        writeSlot = 0;
+                    }
+                    writeChunk.items[writeSlot++] = readChunk.items[i];
+                }
+            }
+            readChunk.deletedBits = 0L;
+        }
+
+        if (count == 0) {
+            head = null;
+            tail = null;
+        } else {
+            for (int i = writeSlot; i < writeChunk.used; i++) {
+                writeChunk.items[i] = null;
+            }
+            writeChunk.used = writeSlot;
+            writeChunk.next = null;
+            tail = writeChunk;
+        }
+
+        holes.clear();
+        deletedCount = 0;
+
+        return slotsDeleted;
+    }
+
+    public void clear() {
+        head = null;
+        tail = null;
+        count = 0;
+        deletedCount = 0;
+        holes.clear();
+    }
+
+    public void add(T data) {
+        if (holes.isEmpty()) {
+            if (tail == null) {
+                head = new Chunk<>();
+                tail = head;
+            } else if (tail.used == CHUNK_SIZE) {
+                tail.next = new Chunk<>();
+                tail = tail.next;
+            }
+            tail.items[tail.used++] = data;
+        } else {
+            Chunk<T> insert = holes.peek();
+            int slot = Long.numberOfTrailingZeros(insert.deletedBits);
+
+            insert.items[slot] = data;
+            insert.deletedBits &= ~(1L << slot);
+            if (insert.deletedBits == 0L) {
+                holes.pop();
+            }
+
+            deletedCount--;
+        }
+
+        count++;
+    }
+
+    public boolean remove(T item) {
+        if(size() == 0) {
+            return false;
+        }
+
+        for (Chunk<T> cursor = head; cursor != null; cursor = cursor.next) {
+            for (int i = 0; i < cursor.used; i++) {
+                if (!cursor.isDeleted(i) && cursor.items[i].equals(item)) {
+                    if (cursor.deletedBits == 0L) {
+                        holes.push(cursor);
+                    }
+                    cursor.deletedBits |= 1L << i;
+                    deletedCount++;
+                    count--;
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    public boolean contains(T data) {
+        for (Chunk<T> cursor = head; cursor != null; cursor = cursor.next) {
+            for (int i = 0; i < cursor.used; i++) {
+                if (!cursor.isDeleted(i) && cursor.items[i].equals(data)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Iterator<T> iterator() {
+        compress();
+        return new UnrolledListIterator();
+    }
+
+    private class UnrolledListIterator implements Iterator<T> {
+        private Chunk<T> chunk;
+        private int slot;
+
+        public UnrolledListIterator() {
+            chunk = head;
+            slot = 0;
+        }
+
+        public boolean hasNext() {
+            return chunk != null && slot < chunk.used;
+        }
+
+        public T next() {
+            if (!hasNext()) {throw new NoSuchElementException();}
+
+            T data = chunk.items[slot++];
+
+            if (slot == chunk.used && chunk.next != null) {
+                chunk = chunk.next;
+                slot = 0;
+            }
+            return data;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove isn't supported");
+        }
+    }
+
+    private static class Chunk<T> {
+        public T[] items;
+        /** slots [0, used) have been filled, deleted or not */
+        public int used;
+        /** bit i set means slot i is deleted */
+        public long deletedBits;
+        public Chunk<T> next;
+
+        @SuppressWarnings("unchecked")
+        public Chunk() {
+            items = (T[]) new Object[CHUNK_SIZE];
+            used = 0;
+            deletedBits = 0L;
+            next = null;
+        }
+
+        public boolean isDeleted(int slot) {
+            return (deletedBits & (1L << slot)) != 0L;
+        }
+    }
+}
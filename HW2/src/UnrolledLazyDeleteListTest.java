@@ -0,0 +1,63 @@
+import static org.junit.Assert.*;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs every LazyDeleteList test against UnrolledLazyDeleteList, plus
+ * a few that cross chunk boundaries
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class UnrolledLazyDeleteListTest extends LazyDeleteListTest {
+
+    @Before
+    @Override
+    public void setUp() {
+        list2test = new UnrolledLazyDeleteList<String>();
+    }
+
+    @Test
+    public void testCompressAcrossChunks() {
+        for (int i = 0; i < 200; i++) {
+            list2test.add("A" + i);
+        }
+        for (int i = 0; i < 200; i += 3) {
+            assertTrue(list2test.remove("A" + i));
+        }
+
+        assertEquals("Deleted count wrong across chunks", 67, list2test.deletedNodeCount());
+        assertEquals("Compress removed wrong number of slots", 67, list2test.compress());
+        assertEquals(133, list2test.size());
+
+        Iterator<String> iter = list2test.iterator();
+        for (int i = 0; i < 200; i++) {
+            if (i % 3 != 0) {
+                assertEquals("Compress did not keep order", "A" + i, iter.next());
+            }
+        }
+        assertFalse(iter.hasNext());
+    }
+
+    @Test
+    public void testAddRefillsDeletedSlots() {
+        for (int i = 0; i < 130; i++) {
+            list2test.add("A" + i);
+        }
+        list2test.remove("A5");
+        list2test.remove("A70");
+        list2test.remove("A129");
+        list2test.add("B");
+        list2test.add("C");
+        list2test.add("D");
+
+        assertEquals(0, list2test.deletedNodeCount());
+        assertEquals(130, list2test.size());
+        assertTrue(list2test.contains("B"));
+        assertTrue(list2test.contains("D"));
+        assertFalse(list2test.contains("A70"));
+        assertEquals(0, list2test.compress());
+    }
+}
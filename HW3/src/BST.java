@@ -1,6 +1,12 @@
+import java.util.AbstractSet;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Implementation of a Binary Search Tree
@@ -19,6 +25,96 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
         nodeCount = 0;
     }
 
+    /**
+     * Builds a height-balanced tree from items already in ascending order, in
+     * O(n) and without comparing anything.  The items must be strictly
+     * increasing and not null; that is not checked.
+     * @param sorted the items in ascending order
+     * @param <E> the type of item
+     * @return a balanced tree holding the items
+     */
+    public static <E extends Comparable<? super E>> BST<E> fromSorted(Iterable<E> sorted) {
+        ArrayList<E> items = new ArrayList<>();
+        for (E item : sorted) {
+            items.add(item);
+        }
+
+        BST<E> tree = new BST<>();
+        tree.root = tree.buildBalanced(items, 0, items.size() - 1);
+        tree.nodeCount = items.size();
+        return tree;
+    }
+
+    /**
+     * @see #fromSorted(Iterable)
+     * @param sorted the items in ascending order
+     * @param <E> the type of item
+     * @return a balanced tree holding the items
+     */
+    public static <E extends Comparable<? super E>> BST<E> fromSorted(E[] sorted) {
+        return fromSorted(Arrays.asList(sorted));
+    }
+
+    /**
+     * Helper method for fromSorted, makes the middle item the root of each subtree
+     * @param items the items in ascending order
+     * @param lo the first index of the subtree's items
+     * @param hi the last index of the subtree's items
+     * @return the root of the balanced subtree, null if lo > hi
+     */
+    private BNode<E> buildBalanced(List<E> items, int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        return new BNode<>(items.get(mid), buildBalanced(items, lo, mid - 1),
+                buildBalanced(items, mid + 1, hi));
+    }
+
+    /**
+     * Rebalances the tree in place so its height is as small as possible,
+     * relinking the existing nodes in their in order order.  Runs in O(n).
+     */
+    public void rebuild() {
+        ArrayList<BNode<E>> nodes = new ArrayList<>(nodeCount);
+        ArrayDeque<BNode<E>> stack = new ArrayDeque<>();
+        BNode<E> node = root;
+
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                stack.push(node);
+                node = node.left;
+            } else {
+                node = stack.pop();
+                nodes.add(node);
+                node = node.right;
+            }
+        }
+
+        root = relink(nodes, 0, nodes.size() - 1);
+    }
+
+    /**
+     * Helper method for rebuild, makes the middle node the root of each subtree
+     * @param nodes the nodes in order
+     * @param lo the first index of the subtree's nodes
+     * @param hi the last index of the subtree's nodes
+     * @return the root of the balanced subtree, null if lo > hi
+     */
+    private BNode<E> relink(List<BNode<E>> nodes, int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        BNode<E> node = nodes.get(mid);
+        node.left = relink(nodes, lo, mid - 1);
+        node.right = relink(nodes, mid + 1, hi);
+        node.size = hi - lo + 1;
+        return node;
+    }
+
     /**
      * Adds an item to the tree
      * @param item the item to add
@@ -29,7 +125,8 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
     }
 
     /**
-     * Helper method for add
+     * Helper method for add.  Walks down with a loop rather than recursion so
+     * a degenerate (sorted input) tree can't overflow the stack.
      * @param dta the item to be added to the tree
      * @param node the root of the subtree that the item is be added to
      * @return Whether or not the item was added to the tree or not
@@ -39,16 +136,25 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
             root = new BNode<>(dta);
             nodeCount++;
             return true;
-        } else {
+        }
+
+        BNode<E> start = node;
+
+        while (true) {
             int comp = dta.compareTo(node.data);
 
+            if (comp != 0) {
+                // counted on the way down, taken back below if dta is a duplicate
+                node.size++;
+            }
+
             if (comp > 0) {
                 if (node.right == null) {
                     node.right = new BNode<>(dta);
                     nodeCount++;
                     return true;
                 } else {
-                    return addMe(dta, node.right);
+                    node = node.right;
                 }
             } else if (comp < 0) {
                 if (node.left == null) {
@@ -56,12 +162,16 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
                     nodeCount++;
                     return true;
                 } else {
-                    return addMe(dta, node.left);
+                    node = node.left;
+                }
+            } else {
+                for (BNode<E> undo = start; undo != node; ) {
+                    undo.size--;
+                    undo = dta.compareTo(undo.data) < 0 ? undo.left : undo.right;
                 }
+                return false;
             }
         }
-
-        return false;
     }
 
     /**
@@ -124,10 +234,20 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
      * @param accum the list which items will be added to
      */
     private void preOrder(BNode<E> node, ArrayList<E> accum) {
+        ArrayDeque<BNode<E>> stack = new ArrayDeque<>();
+
         if (node != null) {
-            accum.add(node.data);
-            preOrder(node.left, accum);
-            preOrder(node.right, accum);
+            stack.push(node);
+        }
+        while (!stack.isEmpty()) {
+            BNode<E> temp = stack.pop();
+            accum.add(temp.data);
+            if (temp.right != null) {
+                stack.push(temp.right);
+            }
+            if (temp.left != null) {
+                stack.push(temp.left);
+            }
         }
     }
 
@@ -150,10 +270,22 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
      * @param accum the list which items will be added to
      */
     private void postOrder(BNode<E> node, ArrayList<E> accum) {
-        if (node != null) {
-            postOrder(node.left, accum);
-            postOrder(node.right, accum);
-            accum.add(node.data);
+        ArrayDeque<BNode<E>> stack = new ArrayDeque<>();
+        BNode<E> lastVisited = null;
+
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                stack.push(node);
+                node = node.left;
+            } else {
+                BNode<E> top = stack.peek();
+                if (top.right != null && top.right != lastVisited) {
+                    node = top.right;
+                } else {
+                    accum.add(top.data);
+                    lastVisited = stack.pop();
+                }
+            }
         }
     }
 
@@ -175,10 +307,17 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
      * @param accum the list that the items will be added to
      */
     private void inOrder(BNode<E> node, ArrayList<E> accum) {
-        if (node != null) {
-            inOrder(node.left, accum);
-            accum.add(node.data);
-            inOrder(node.right, accum);
+        ArrayDeque<BNode<E>> stack = new ArrayDeque<>();
+
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                stack.push(node);
+                node = node.left;
+            } else {
+                node = stack.pop();
+                accum.add(node.data);
+                node = node.right;
+            }
         }
     }
 
@@ -263,11 +402,40 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
         nodeCount = 0;
     }
 
+    /**
+     * @return a read-only, array backed snapshot of the tree for fast lookups
+     */
+    public FrozenBST<E> freeze() {
+        return new FrozenBST<>(this);
+    }
+
     /**
      * @return an in order iterator of the tree
      */
     public Iterator<E> iterator() {
-        return new MyBSTIterator(this);
+        return new MyBSTIterator(null, true);
+    }
+
+    /**
+     * Seeks straight to from, so paging through a big tree only costs O(height)
+     * per page to start
+     * @param from the smallest item to return
+     * @return an in order iterator of the items greater than or equal to from
+     */
+    public Iterator<E> iteratorFrom(E from) {
+        return tailIterator(from, true);
+    }
+
+    /**
+     * @param from where to start
+     * @param inclusive whether an item equal to from is returned
+     * @return an in order iterator of the items after from (or equal to it, if inclusive)
+     */
+    public Iterator<E> tailIterator(E from, boolean inclusive) {
+        if (from == null) {
+            throw new IllegalArgumentException("from can't be null");
+        }
+        return new MyBSTIterator(from, inclusive);
     }
 
     /**
@@ -285,55 +453,69 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
     }
 
     /**
-     * Helper function for remove method
+     * Helper function for remove method.  Finds the node and its parent with a
+     * loop, then splices the in-order successor into its place.
      * @param node Specifies the root of the subtree to be searched/have the item removed from
      * @param dta The item to be removed from the subtree
      * @return the root of the new subtree sans the item specified
      */
     private BNode<E> remove(BNode<E> node, E dta) {
+        BNode<E> subRoot = node;
+        BNode<E> parent = null;
+
+        while (node != null) {
+            int comp = dta.compareTo(node.data);
+
+            if (comp == 0) {
+                break;
+            }
+            parent = node;
+            node = comp < 0 ? node.left : node.right;
+        }
+
         if (node == null) {
-            return null;
+            return subRoot;
         }
 
-        int comp = dta.compareTo(node.data);
+        for (BNode<E> ancestor = subRoot; ancestor != node; ) {
+            ancestor.size--;
+            ancestor = dta.compareTo(ancestor.data) < 0 ? ancestor.left : ancestor.right;
+        }
+
+        BNode<E> replacement;
 
-        if (comp < 0) {
-            node.left = remove(node.left, dta);
-        } else if (comp > 0) {
-            node.right = remove(node.right, dta);
+        if (node.right == null) {
+            replacement = node.left;
+        } else if (node.left == null) {
+            replacement = node.right;
         } else {
-            if (node.right == null) {
-                nodeCount--;
-                return node.left;
-            }
+            BNode<E> succParent = node;
+            BNode<E> succ = node.right;
 
-            if (node.left == null) {
-                nodeCount--;
-                return node.right;
+            while (succ.left != null) {
+                succParent = succ;
+                succ.size--;
+                succ = succ.left;
             }
 
-            BNode<E> temp = node;
-            node = min(temp.right);
-            node.right = removeMin(temp.right);
-            node.left = temp.left;
+            if (succParent != node) {
+                succParent.left = succ.right;
+                succ.right = node.right;
+            }
+            succ.left = node.left;
+            succ.size = node.size - 1;
+            replacement = succ;
         }
+        nodeCount--;
 
-        return node;
-    }
-
-    /**
-     * Helper method that removes the minimum item from the subtree rooted at the node specified
-     * @param node the root of the subtree from which the minimum item is to be removed from
-     * @return The root of the subtree specified with the item removed
-     */
-    private BNode<E> removeMin(BNode<E> node) {
-        if (node.left == null) {
-            nodeCount--;
-            return node.right;
+        if (parent == null) {
+            return replacement;
+        } else if (parent.left == node) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
         }
-
-        node.left = removeMin(node.left);
-        return node;
+        return subRoot;
     }
 
     /**
@@ -342,46 +524,62 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
      * @return the node which contains the minimum item from the subtree specified
      */
     private BNode<E> min(BNode<E> node) {
-        if (node.left == null) {
-            return node;
-        } else {
-            return min(node.left);
+        while (node.left != null) {
+            node = node.left;
         }
+        return node;
     }
 
     /**
-     * The Iterator class for BST
-     * @param <T> Typed Data structure (must be comparable)
+     * The Iterator class for BST.  Walks the tree lazily, holding only the
+     * path of nodes whose items are still to come, so it uses O(height) memory
+     * and the first next() costs O(height) rather than O(n).
+     * Changing the tree while iterating gives undefined results.
      */
-    class MyBSTIterator<T extends Comparable<? super T>> implements Iterator {
-        ArrayList<T> inOrder;
-        int cursor;
+    class MyBSTIterator implements Iterator<E> {
+        ArrayDeque<BNode<E>> path;
 
         /**
          * Constructs a new MyBSTIterator
-         * @param bST the BST to be iterator over
+         * @param from the item to start at, or null to start at the minimum
+         * @param inclusive whether an item equal to from is returned
          */
-        public MyBSTIterator(BST<T> bST) {
-            inOrder = bST.getInOrder();
-            cursor = 0;
+        public MyBSTIterator(E from, boolean inclusive) {
+            path = new ArrayDeque<>();
+            BNode<E> node = root;
+
+            while (node != null) {
+                int comp = from == null ? -1 : from.compareTo(node.data);
+
+                if (comp < 0 || (comp == 0 && inclusive)) {
+                    path.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
         }
 
         /**
          * @return the next item from the BST
          */
-        public T next() {
+        public E next() {
             if (!hasNext()) {
                 throw new IndexOutOfBoundsException();
             }
 
-            return inOrder.get(cursor++);
+            BNode<E> node = path.pop();
+            for (BNode<E> next = node.right; next != null; next = next.left) {
+                path.push(next);
+            }
+            return node.data;
         }
 
         /**
          * @return whether or not there is another item to be returned
          */
         public boolean hasNext() {
-            return inOrder != null && cursor < inOrder.size();
+            return !path.isEmpty();
         }
 
         /**
@@ -400,6 +598,8 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
         BNode<T> left;
         BNode<T> right;
         T data;
+        /** number of nodes in the subtree rooted here, this one included */
+        int size;
 
         public BNode(T dta) {
             this(dta, null, null);
@@ -409,42 +609,420 @@ public class BST<E extends Comparable<? super E>> implements BinaryTree<E>, Iter
             left = l;
             right = r;
             data = dta;
+            size = 1 + sizeOf(l) + sizeOf(r);
         }
     }
 
-    public E floor (E value) {
-        BNode<E> curr = root;
-        BNode<E> min = min(root);
+    /**
+     * Calls action on every item from lo to hi (both included) in order.
+     * Subtrees entirely outside the range are never visited, so this costs
+     * O(height + number of items in range).
+     * @param lo the low end of the range
+     * @param hi the high end of the range
+     * @param action what to do with each item
+     */
+    public void forEachInRange(E lo, E hi, Consumer<? super E> action) {
+        ArrayDeque<BNode<E>> stack = new ArrayDeque<>();
+        BNode<E> node = root;
 
-        if (min.data.compareTo(value) >= 0) {
-            return null;
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                if (lo.compareTo(node.data) <= 0) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    // node and its left subtree are below the range
+                    node = node.right;
+                }
+            } else {
+                node = stack.pop();
+                if (hi.compareTo(node.data) < 0) {
+                    return;
+                }
+                action.accept(node.data);
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * A live view of the items from lo to hi, both included.  Adding or
+     * removing through the view changes the tree; items outside the range
+     * can't be added through it.
+     * @param lo the low end of the range
+     * @param hi the high end of the range
+     * @return the view
+     */
+    public Set<E> subSet(E lo, E hi) {
+        if (lo == null || hi == null) {
+            throw new IllegalArgumentException("range ends can't be null");
         }
+        return new RangeView(lo, hi);
+    }
 
-        boolean flag = true;
+    /**
+     * Removes every item from lo to hi (both included).  Whole subtrees inside
+     * the range are cut loose at once rather than removed one item at a time,
+     * so this costs O(height) pointer changes however many items go.
+     * @param lo the low end of the range
+     * @param hi the high end of the range
+     * @return the number of items removed
+     */
+    public int removeRange(E lo, E hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        }
 
-        while (flag) {
-            BNode<E> temp1 = firstLessThan(curr, value);
-            BNode<E> temp2 = min(temp1.right);
+        // every item in range is under the first node on the search path that is in range
+        ArrayDeque<BNode<E>> path = new ArrayDeque<>();
+        BNode<E> node = root;
 
-            if (temp2.data.compareTo(value) >= 0) {
-                return temp1.data;
+        while (node != null) {
+            if (lo.compareTo(node.data) > 0) {
+                path.push(node);
+                node = node.right;
+            } else if (hi.compareTo(node.data) < 0) {
+                path.push(node);
+                node = node.left;
             } else {
-                curr = temp1.right;
+                break;
             }
         }
-        return null;
-    }
 
-    private BNode<E> firstLessThan(BNode<E> node, E value) {
         if (node == null) {
-            return null;
+            return 0;
         }
-        int comp = value.compareTo(node.data);
 
-        if (comp < 0) {
-            return firstLessThan(node.left, value);
+        BNode<E> joined = join(keepOutside(node.left, lo, true), keepOutside(node.right, hi, false));
+        BNode<E> parent = path.peek();
+
+        if (parent == null) {
+            root = joined;
+        } else if (parent.left == node) {
+            parent.left = joined;
         } else {
-            return node;
+            parent.right = joined;
+        }
+        resize(path);
+
+        int removed = nodeCount - sizeOf(root);
+        nodeCount = sizeOf(root);
+        return removed;
+    }
+
+    /**
+     * Helper method for removeRange, trims a subtree down to the items on one
+     * side of bound.  Nodes on the wrong side are dropped along with the whole
+     * subtree hanging off their far side.
+     * @param node the root of the subtree to trim
+     * @param bound the edge of the range being removed
+     * @param below true to keep items less than bound, false to keep items greater than it
+     * @return the root of the trimmed subtree
+     */
+    private BNode<E> keepOutside(BNode<E> node, E bound, boolean below) {
+        ArrayDeque<BNode<E>> kept = new ArrayDeque<>();
+        BNode<E> result = null;
+        BNode<E> last = null;
+
+        while (node != null) {
+            int comp = node.data.compareTo(bound);
+
+            if (below ? comp < 0 : comp > 0) {
+                if (last == null) {
+                    result = node;
+                } else if (below) {
+                    last.right = node;
+                } else {
+                    last.left = node;
+                }
+                last = node;
+                kept.push(node);
+                node = below ? node.right : node.left;
+            } else {
+                node = below ? node.left : node.right;
+            }
+        }
+
+        if (last != null) {
+            if (below) {
+                last.right = null;
+            } else {
+                last.left = null;
+            }
+        }
+        resize(kept);
+        return result;
+    }
+
+    /**
+     * Helper method for removeRange, joins two subtrees where everything in
+     * left is less than everything in right, using the minimum of right as
+     * the new root
+     * @param left the lower subtree
+     * @param right the upper subtree
+     * @return the root of the joined subtree
+     */
+    private BNode<E> join(BNode<E> left, BNode<E> right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        }
+
+        ArrayDeque<BNode<E>> path = new ArrayDeque<>();
+        BNode<E> min = right;
+
+        while (min.left != null) {
+            path.push(min);
+            min = min.left;
+        }
+
+        if (!path.isEmpty()) {
+            path.peek().left = min.right;
+            resize(path);
+            min.right = right;
+        }
+        min.left = left;
+        min.size = 1 + sizeOf(min.left) + sizeOf(min.right);
+        return min;
+    }
+
+    /**
+     * Recomputes the sizes of the nodes on a path, deepest (top of the stack) first
+     * @param path the nodes whose subtrees changed, the deepest on top
+     */
+    private void resize(ArrayDeque<BNode<E>> path) {
+        while (!path.isEmpty()) {
+            BNode<E> node = path.pop();
+            node.size = 1 + sizeOf(node.left) + sizeOf(node.right);
+        }
+    }
+
+    /**
+     * The view returned by subSet
+     */
+    class RangeView extends AbstractSet<E> {
+        final E lo;
+        final E hi;
+
+        RangeView(E lo, E hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        private boolean inRange(Object o) {
+            if (o == null) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            E item = (E) o;
+            return lo.compareTo(item) <= 0 && hi.compareTo(item) >= 0;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final Iterator<E> tail = iteratorFrom(lo);
+
+            return new Iterator<E>() {
+                E next = advance();
+
+                private E advance() {
+                    if (tail.hasNext()) {
+                        E item = tail.next();
+                        if (hi.compareTo(item) >= 0) {
+                            return item;
+                        }
+                    }
+                    return null;
+                }
+
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                public E next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    E item = next;
+                    next = advance();
+                    return item;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return countRange(lo, hi);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return inRange(o) && BST.this.contains((E) o);
+        }
+
+        @Override
+        public boolean add(E item) {
+            if (!inRange(item)) {
+                throw new IllegalArgumentException(item + " is outside the view");
+            }
+            return BST.this.add(item);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return inRange(o) && BST.this.remove((E) o);
+        }
+
+        @Override
+        public void clear() {
+            removeRange(lo, hi);
+        }
+    }
+
+    /**
+     * @param node the root of a subtree, may be null
+     * @return the number of nodes in the subtree
+     */
+    private int sizeOf(BNode<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns the k-th smallest item in O(height)
+     * @param k the zero based rank of the item wanted
+     * @return the item with exactly k items less than it
+     * @throws IndexOutOfBoundsException if k is negative or at least size()
+     */
+    public E select(int k) {
+        if (k < 0 || k >= nodeCount) {
+            throw new IndexOutOfBoundsException("k: " + k + ", size: " + nodeCount);
+        }
+
+        BNode<E> node = root;
+
+        while (true) {
+            int leftSize = sizeOf(node.left);
+
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.data;
+            }
+        }
+    }
+
+    /**
+     * Counts the items less than value in O(height)
+     * @param value the item to rank, need not be in the tree
+     * @return the number of items in the tree less than value
+     */
+    public int rank(E value) {
+        int less = 0;
+        BNode<E> node = root;
+
+        while (node != null) {
+            int comp = value.compareTo(node.data);
+
+            if (comp <= 0) {
+                if (comp == 0) {
+                    return less + sizeOf(node.left);
+                }
+                node = node.left;
+            } else {
+                less += sizeOf(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return less;
+    }
+
+    /**
+     * Counts the items between lo and hi, both included, in O(height)
+     * @param lo the low end of the range
+     * @param hi the high end of the range
+     * @return the number of items x with lo <= x <= hi
+     */
+    public int countRange(E lo, E hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
         }
+        int upTo = rank(hi) + (contains(hi) ? 1 : 0);
+        return upTo - rank(lo);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the least item greater than or equal to value, null if there is none
+     */
+    public E ceiling(E value) {
+        return above(value, true);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the least item strictly greater than value, null if there is none
+     */
+    public E higher(E value) {
+        return above(value, false);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E lower(E value) {
+        BNode<E> best = null;
+        BNode<E> node = root;
+
+        while (node != null) {
+            if (value.compareTo(node.data) > 0) {
+                best = node;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return best == null ? null : best.data;
+    }
+
+    /**
+     * Helper method for ceiling and higher, one pass down from the root
+     * @param value the item to look around
+     * @param inclusive whether an item equal to value counts
+     * @return the least item above value, null if there is none
+     */
+    private E above(E value, boolean inclusive) {
+        BNode<E> best = null;
+        BNode<E> node = root;
+
+        while (node != null) {
+            int comp = value.compareTo(node.data);
+
+            if (comp == 0 && inclusive) {
+                return node.data;
+            } else if (comp < 0) {
+                best = node;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        return best == null ? null : best.data;
+    }
+
+    /**
+     * Kept strictly less than value, the way the Driver has always used it.
+     * One pass down from the root, like lower.
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E floor(E value) {
+        return lower(value);
     }
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -364,4 +369,212 @@ public class BinaryTreeTest {
 		
 	}
 
+	@Test
+	public void testDeepSortedTree() {
+		BST<Integer> tree = new BST<>();
+		int n = 20000;
+		for (int i = 0; i < n; ++i) {
+			assertTrue(tree.add(i));
+		}
+
+		assertEquals(n, tree.getInOrder().size());
+		assertEquals(Integer.valueOf(n - 1), tree.getPreOrder().get(n - 1));
+		assertEquals(Integer.valueOf(0), tree.getPostOrder().get(n - 1));
+		assertTrue(tree.remove(n - 1));
+		assertTrue(tree.remove(0));
+		assertFalse(tree.contains(n - 1));
+		assertEquals(n - 2, tree.size());
+	}
+
+	@Test
+	public void testIteratorFrom() {
+		for (int i = 0; i < noRotateTraversals.length ; ++i) {
+			tree.add(noRotateTraversals[i]);
+		}
+		BST<String> bst = (BST<String>) tree;
+
+		Iterator<String> iter = bst.iteratorFrom("I");
+		for (int i = 3; i < inorderTraversal.length; ++i) {
+			assertTrue(iter.hasNext());
+			assertEquals(inorderTraversal[i], iter.next());
+		}
+		assertFalse(iter.hasNext());
+
+		iter = bst.tailIterator("K", false);
+		assertEquals("L", iter.next());
+		iter = bst.tailIterator("K", true);
+		assertEquals("K", iter.next());
+		assertFalse(bst.iteratorFrom("V").hasNext());
+	}
+
+	@Test
+	public void testFromSortedAndRebuild() {
+		BST<String> built = BST.fromSorted(inorderTraversal);
+		assertEquals(inorderTraversal.length, built.size());
+		List<String> list = built.getInOrder();
+		for (int i = 0; i < inorderTraversal.length; ++i) {
+			assertEquals(inorderTraversal[i], list.get(i));
+		}
+		assertEquals("L", built.getLevelOrder().get(0));
+		assertTrue(built.contains("A"));
+		assertTrue(built.add("B"));
+
+		BST<Integer> skewed = new BST<>();
+		for (int i = 0; i < 15; ++i) {
+			skewed.add(i);
+		}
+		skewed.rebuild();
+		List<Integer> level = skewed.getLevelOrder();
+		assertEquals(Integer.valueOf(7), level.get(0));
+		assertEquals(Integer.valueOf(3), level.get(1));
+		assertEquals(Integer.valueOf(11), level.get(2));
+		assertEquals(15, skewed.getInOrder().size());
+		assertTrue(skewed.remove(7));
+		assertEquals(14, skewed.size());
+	}
+
+	@Test
+	public void testOrderStatistics() {
+		BST<Integer> tree = new BST<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(1332);
+		for (int i = 0; i < 2000; ++i) {
+			int value = random.nextInt(500);
+			if (random.nextInt(3) == 0) {
+				assertEquals(expected.remove(value), tree.remove(value));
+			} else {
+				assertEquals(expected.add(value), tree.add(value));
+			}
+		}
+		tree.rebuild();
+		tree.add(-1);
+		expected.add(-1);
+
+		int k = 0;
+		for (Integer value : expected) {
+			assertEquals(value, tree.select(k));
+			assertEquals(k, tree.rank(value));
+			k++;
+		}
+		for (int value = -2; value < 502; value += 7) {
+			assertEquals(expected.headSet(value).size(), tree.rank(value));
+			assertEquals(expected.subSet(value, true, value + 50, true).size(),
+					tree.countRange(value, value + 50));
+			assertEquals(expected.ceiling(value), tree.ceiling(value));
+			assertEquals(expected.higher(value), tree.higher(value));
+			assertEquals(expected.lower(value), tree.lower(value));
+			assertEquals(expected.lower(value), tree.floor(value));
+		}
+	}
+
+	@Test
+	public void testRangeQueries() {
+		BST<Integer> tree = new BST<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 300; ++i) {
+			int value = random.nextInt(1000);
+			tree.add(value);
+			expected.add(value);
+		}
+
+		List<Integer> seen = new ArrayList<>();
+		tree.forEachInRange(200, 400, seen::add);
+		assertEquals(new ArrayList<>(expected.subSet(200, true, 400, true)), seen);
+
+		Set<Integer> view = tree.subSet(600, 700);
+		assertEquals(expected.subSet(600, true, 700, true).size(), view.size());
+		assertEquals(new ArrayList<>(expected.subSet(600, true, 700, true)), new ArrayList<>(view));
+		assertFalse(view.contains(599));
+		view.add(650);
+		assertTrue(tree.contains(650));
+		expected.add(650);
+
+		for (int lo = -50; lo < 1000; lo += 97) {
+			int hi = lo + random.nextInt(200);
+			int before = expected.size();
+			expected.subSet(lo, true, hi, true).clear();
+			assertEquals(before - expected.size(), tree.removeRange(lo, hi));
+			assertEquals(expected.size(), tree.size());
+			assertEquals(new ArrayList<>(expected), tree.getInOrder());
+			for (int k = 0; k < expected.size(); k += 11) {
+				assertEquals(k, tree.rank(tree.select(k)));
+			}
+		}
+		view.clear();
+		assertTrue(tree.subSet(600, 700).isEmpty());
+	}
+
+	@Test
+	public void testFrozenSnapshot() {
+		BST<Integer> tree = new BST<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(7);
+		for (int i = 0; i < 500; ++i) {
+			int value = random.nextInt(2000);
+			tree.add(value);
+			expected.add(value);
+		}
+
+		FrozenBST<Integer> frozen = tree.freeze();
+		IntFrozenBST frozenInts = new IntFrozenBST(tree);
+		for (int value = -1; value <= 2001; ++value) {
+			assertEquals(tree.floor(value), frozen.floor(value));
+			assertEquals(tree.floor(value), frozenInts.floor(value));
+		}
+		tree.clear();
+		assertEquals(expected.size(), frozen.size());
+		for (int value = -1; value <= 2001; ++value) {
+			assertEquals(expected.contains(value), frozen.contains(value));
+			assertEquals(expected.contains(value), frozenInts.contains(value));
+			assertEquals(expected.lower(value), frozen.lower(value));
+			assertEquals(expected.lower(value), frozenInts.lower(value));
+			assertEquals(expected.ceiling(value), frozen.ceiling(value));
+			assertEquals(expected.ceiling(value), frozenInts.ceiling(value));
+		}
+		assertFalse(tree.freeze().contains(5));
+	}
+
+	@Test
+	public void testPersistentSnapshots() {
+		PersistentBST<String> persistent = new PersistentBST<>();
+		for (String s : noRotateTraversals) {
+			persistent.add(s);
+		}
+		assertEquals(new ArrayList<>(Arrays.asList(preorderTraversal)), persistent.getPreOrder());
+		assertEquals(new ArrayList<>(Arrays.asList(postorderTraversal)), persistent.getPostOrder());
+
+		PersistentBST<String> before = persistent.snapshot();
+		assertTrue(persistent.remove("M"));
+		assertFalse(persistent.remove("M"));
+		assertEquals(new ArrayList<>(Arrays.asList(levelorderRemoveRoot)), persistent.getLevelOrder());
+		assertEquals(new ArrayList<>(Arrays.asList(levelorderTraversal)), before.getLevelOrder());
+		assertEquals(noRotateTraversals.length, before.size());
+
+		PersistentBST<Integer> ints = new PersistentBST<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(11);
+		List<PersistentBST<Integer>> versions = new ArrayList<>();
+		List<List<Integer>> contents = new ArrayList<>();
+		for (int i = 0; i < 2000; ++i) {
+			int value = random.nextInt(300);
+			if (random.nextBoolean()) {
+				assertEquals(expected.add(value), ints.add(value));
+			} else {
+				assertEquals(expected.remove(value), ints.remove(value));
+			}
+			if (i % 100 == 0) {
+				versions.add(ints.snapshot());
+				contents.add(new ArrayList<>(expected));
+			}
+		}
+		assertEquals(new ArrayList<>(expected), ints.getInOrder());
+		ints.clear();
+		assertTrue(ints.isEmpty());
+		for (int i = 0; i < versions.size(); ++i) {
+			assertEquals(contents.get(i), versions.get(i).getInOrder());
+			assertEquals(contents.get(i).size(), versions.get(i).size());
+		}
+	}
+
 }
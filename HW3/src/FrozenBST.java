@@ -0,0 +1,124 @@
+import java.util.List;
+
+/**
+ * A read-only snapshot of a BST laid out as an implicit tree in one array,
+ * in Eytzinger (breadth first) order: the root is at index 1 and the children
+ * of index i are at 2i and 2i + 1.  There are no node objects or child
+ * pointers to chase, the top levels of the tree share a few cache lines,
+ * and the search loop has no data dependent branch except the loop test,
+ * so the JIT can turn each step into a conditional move.
+ * Each comparison still has to load the item itself, so for Integer keys
+ * IntFrozenBST, which keeps them unboxed, is much faster.
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class FrozenBST<E extends Comparable<? super E>> {
+    /** the items in Eytzinger order, slot 0 unused */
+    private final Object[] items;
+    private final int size;
+
+    /**
+     * Takes a snapshot of tree.  Later changes to tree are not seen.
+     * @param tree the tree to copy
+     */
+    public FrozenBST(BST<E> tree) {
+        List<E> sorted = tree.getInOrder();
+        size = sorted.size();
+        items = new Object[size + 1];
+        fill(sorted, 0, 1);
+    }
+
+    /**
+     * Copies the sorted items into the array by an in order walk of the implicit tree
+     * @param sorted the items in ascending order
+     * @param next the index in sorted of the next item to place
+     * @param slot the implicit node to fill
+     * @return the index in sorted of the next item to place after this subtree
+     */
+    private int fill(List<E> sorted, int next, int slot) {
+        if (slot <= size) {
+            next = fill(sorted, next, 2 * slot);
+            items[slot] = sorted.get(next++);
+            next = fill(sorted, next, 2 * slot + 1);
+        }
+        return next;
+    }
+
+    /**
+     * @return the number of items in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether the snapshot has no items
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param value the item to look for
+     * @return true if the snapshot holds an item equal to value
+     */
+    public boolean contains(E value) {
+        int slot = lowerBound(value);
+        return slot != 0 && value.compareTo(itemAt(slot)) == 0;
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the least item greater than or equal to value, null if there is none
+     */
+    public E ceiling(E value) {
+        int slot = lowerBound(value);
+        return slot == 0 ? null : itemAt(slot);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E lower(E value) {
+        int best = 0;
+        int slot = 1;
+
+        while (slot <= size) {
+            int lt = value.compareTo(itemAt(slot)) > 0 ? 1 : 0;
+            best = lt == 1 ? slot : best;
+            slot = 2 * slot + lt;
+        }
+        return best == 0 ? null : itemAt(best);
+    }
+
+    /**
+     * Strictly less than value, the same answer BST.floor gives
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E floor(E value) {
+        return lower(value);
+    }
+
+    /**
+     * Walks to a leaf, going right whenever the item is less than value,
+     * then backs up past the right turns to the last left turn, which is
+     * the first item not less than value.
+     * @param value the item to look for
+     * @return the slot of the least item greater than or equal to value, 0 if there is none
+     */
+    private int lowerBound(E value) {
+        int slot = 1;
+
+        while (slot <= size) {
+            slot = 2 * slot + (itemAt(slot).compareTo(value) < 0 ? 1 : 0);
+        }
+        return slot >>> (Integer.numberOfTrailingZeros(~slot) + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private E itemAt(int slot) {
+        return (E) items[slot];
+    }
+}
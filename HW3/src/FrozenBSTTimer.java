@@ -0,0 +1,71 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Times lookups in TreeSet, BST and a FrozenBST snapshot of the same BST.
+ * Keys are inserted in random order so the BST isn't a linked list.
+ */
+public class FrozenBSTTimer {
+    public static final int TEST_INPUT_SIZE = 1000000;
+    public static final int LOOKUPS = 2000000;
+    public static void main(String[] args) {
+        System.out.println("Timing Test");
+        System.out.println(TEST_INPUT_SIZE + " entries, " + LOOKUPS + " lookups");
+
+        Random random = new Random(1332);
+        int[] keys = new int[TEST_INPUT_SIZE];
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            keys[i] = random.nextInt();
+        }
+        Integer[] probes = new Integer[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; ++i) {
+            probes[i] = i % 2 == 0 ? keys[random.nextInt(TEST_INPUT_SIZE)] : random.nextInt();
+        }
+
+        TreeSet<Integer> javaTree = new TreeSet<>();
+        BST<Integer> myTree = new BST<>();
+        for (int key : keys) {
+            javaTree.add(key);
+            myTree.add(key);
+        }
+        FrozenBST<Integer> frozen = myTree.freeze();
+        IntFrozenBST frozenInts = new IntFrozenBST(myTree);
+
+        // a warm up round for the JIT, then the timed round
+        for (int round = 0; round < 2; ++round) {
+            System.out.println(round == 0 ? "\nWarm up" : "\nTimed");
+            int found = 0;
+
+            long start = System.nanoTime();
+            for (Integer probe : probes) {
+                found += javaTree.contains(probe) ? 1 : 0;
+            }
+            long stop = System.nanoTime();
+            System.out.println("Built-in tree: " + (stop - start) + " (" + found + " found)");
+
+            found = 0;
+            start = System.nanoTime();
+            for (Integer probe : probes) {
+                found += myTree.contains(probe) ? 1 : 0;
+            }
+            stop = System.nanoTime();
+            System.out.println("Your Tree: " + (stop - start) + " (" + found + " found)");
+
+            found = 0;
+            start = System.nanoTime();
+            for (Integer probe : probes) {
+                found += frozen.contains(probe) ? 1 : 0;
+            }
+            stop = System.nanoTime();
+            System.out.println("Frozen snapshot: " + (stop - start) + " (" + found + " found)");
+
+            found = 0;
+            start = System.nanoTime();
+            for (Integer probe : probes) {
+                found += frozenInts.contains(probe) ? 1 : 0;
+            }
+            stop = System.nanoTime();
+            System.out.println("Frozen int snapshot: " + (stop - start) + " (" + found + " found)");
+        }
+    }
+}
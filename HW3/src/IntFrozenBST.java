@@ -0,0 +1,111 @@
+import java.util.List;
+
+/**
+ * FrozenBST for Integer trees, with the keys unboxed into an int[] so a
+ * lookup touches only the array and never an Integer object.
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class IntFrozenBST {
+    /** the keys in Eytzinger order, slot 0 unused */
+    private final int[] keys;
+    private final int size;
+
+    /**
+     * Takes a snapshot of tree.  Later changes to tree are not seen.
+     * @param tree the tree to copy
+     */
+    public IntFrozenBST(BST<Integer> tree) {
+        List<Integer> sorted = tree.getInOrder();
+        size = sorted.size();
+        keys = new int[size + 1];
+        fill(sorted, 0, 1);
+    }
+
+    /**
+     * Copies the sorted keys into the array by an in order walk of the implicit tree
+     * @param sorted the keys in ascending order
+     * @param next the index in sorted of the next key to place
+     * @param slot the implicit node to fill
+     * @return the index in sorted of the next key to place after this subtree
+     */
+    private int fill(List<Integer> sorted, int next, int slot) {
+        if (slot <= size) {
+            next = fill(sorted, next, 2 * slot);
+            keys[slot] = sorted.get(next++);
+            next = fill(sorted, next, 2 * slot + 1);
+        }
+        return next;
+    }
+
+    /**
+     * @return the number of keys in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return whether the snapshot has no keys
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param value the key to look for
+     * @return true if the snapshot holds value
+     */
+    public boolean contains(int value) {
+        int slot = lowerBound(value);
+        return slot != 0 && keys[slot] == value;
+    }
+
+    /**
+     * @param value the key to look around
+     * @return the least key greater than or equal to value, null if there is none
+     */
+    public Integer ceiling(int value) {
+        int slot = lowerBound(value);
+        return slot == 0 ? null : keys[slot];
+    }
+
+    /**
+     * @param value the key to look around
+     * @return the greatest key strictly less than value, null if there is none
+     */
+    public Integer lower(int value) {
+        int best = 0;
+        int slot = 1;
+
+        while (slot <= size) {
+            int lt = keys[slot] < value ? 1 : 0;
+            best = lt == 1 ? slot : best;
+            slot = 2 * slot + lt;
+        }
+        return best == 0 ? null : keys[best];
+    }
+
+    /**
+     * Strictly less than value, the same answer BST.floor gives
+     * @param value the key to look around
+     * @return the greatest key strictly less than value, null if there is none
+     */
+    public Integer floor(int value) {
+        return lower(value);
+    }
+
+    /**
+     * @see FrozenBST
+     * @param value the key to look for
+     * @return the slot of the least key greater than or equal to value, 0 if there is none
+     */
+    private int lowerBound(int value) {
+        int slot = 1;
+
+        while (slot <= size) {
+            slot = 2 * slot + (keys[slot] < value ? 1 : 0);
+        }
+        return slot >>> (Integer.numberOfTrailingZeros(~slot) + 1);
+    }
+}
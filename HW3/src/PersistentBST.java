@@ -0,0 +1,369 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A binary search tree whose nodes never change once built.  add and remove
+ * copy only the path from the root to the change and share every other
+ * subtree with the old tree, then publish the new root.
+ *
+ * Because old roots stay valid, snapshot() is O(1): it hands back a tree
+ * pinned to the current root.  Readers working from a snapshot see one
+ * consistent tree and need no locks, however much the original keeps
+ * changing.  Writers publish with a compare-and-set, so several threads can
+ * also write to one tree without locking.
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class PersistentBST<E extends Comparable<? super E>> implements BinaryTree<E>, Iterable<E> {
+    private final AtomicReference<Version<E>> current;
+
+    /**
+     * Constructs a new empty PersistentBST
+     */
+    public PersistentBST() {
+        this(new Version<E>(null, 0));
+    }
+
+    private PersistentBST(Version<E> version) {
+        current = new AtomicReference<>(version);
+    }
+
+    /**
+     * @return an independent tree holding exactly the items in this one right now,
+     *         sharing all of its nodes
+     */
+    public PersistentBST<E> snapshot() {
+        return new PersistentBST<>(current.get());
+    }
+
+    /**
+     * Adds an item to the tree
+     * @param item the item to add
+     * @return Whether or not the item was added to the tree
+     */
+    public boolean add(E item) {
+        if (item == null) {
+            return false;
+        }
+
+        while (true) {
+            Version<E> old = current.get();
+            ArrayDeque<PNode<E>> path = new ArrayDeque<>();
+            PNode<E> node = old.root;
+
+            while (node != null) {
+                int comp = item.compareTo(node.data);
+
+                if (comp == 0) {
+                    return false;
+                }
+                path.push(node);
+                node = comp < 0 ? node.left : node.right;
+            }
+
+            PNode<E> newRoot = copyPath(path, item, new PNode<E>(item, null, null));
+            if (current.compareAndSet(old, new Version<>(newRoot, old.count + 1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the specified item from the tree
+     * @param dta the item to be removed from the tree
+     * @return Whether or not the item was removed from the tree
+     */
+    public boolean remove(E dta) {
+        if (dta == null) {
+            return false;
+        }
+
+        while (true) {
+            Version<E> old = current.get();
+            ArrayDeque<PNode<E>> path = new ArrayDeque<>();
+            PNode<E> node = old.root;
+
+            while (node != null) {
+                int comp = dta.compareTo(node.data);
+
+                if (comp == 0) {
+                    break;
+                }
+                path.push(node);
+                node = comp < 0 ? node.left : node.right;
+            }
+
+            if (node == null) {
+                return false;
+            }
+
+            PNode<E> replacement;
+
+            if (node.right == null) {
+                replacement = node.left;
+            } else if (node.left == null) {
+                replacement = node.right;
+            } else {
+                // copy the left spine of the right subtree down to the successor
+                ArrayDeque<PNode<E>> spine = new ArrayDeque<>();
+                PNode<E> succ = node.right;
+
+                while (succ.left != null) {
+                    spine.push(succ);
+                    succ = succ.left;
+                }
+
+                PNode<E> rightRest = succ.right;
+                while (!spine.isEmpty()) {
+                    PNode<E> p = spine.pop();
+                    rightRest = new PNode<>(p.data, rightRest, p.right);
+                }
+                replacement = new PNode<>(succ.data, node.left, rightRest);
+            }
+
+            PNode<E> newRoot = copyPath(path, dta, replacement);
+            if (current.compareAndSet(old, new Version<>(newRoot, old.count - 1))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the nodes on the search path above a changed subtree
+     * @param path the nodes from the root down, deepest on top
+     * @param key the item that was searched for, to tell which side changed
+     * @param child the new subtree that replaces the old one below the path
+     * @return the new root
+     */
+    private PNode<E> copyPath(ArrayDeque<PNode<E>> path, E key, PNode<E> child) {
+        while (!path.isEmpty()) {
+            PNode<E> p = path.pop();
+
+            if (key.compareTo(p.data) < 0) {
+                child = new PNode<>(p.data, child, p.right);
+            } else {
+                child = new PNode<>(p.data, p.left, child);
+            }
+        }
+        return child;
+    }
+
+    /**
+     * @return The maximum item in the tree
+     */
+    public E max() {
+        PNode<E> current = this.current.get().root;
+
+        if (current == null) {
+            return null;
+        }
+        while (current.right != null) {
+            current = current.right;
+        }
+        return current.data;
+    }
+
+    /**
+     * @return the minimum item in the tree
+     */
+    public E min() {
+        PNode<E> current = this.current.get().root;
+
+        if (current == null) {
+            return null;
+        }
+        while (current.left != null) {
+            current = current.left;
+        }
+        return current.data;
+    }
+
+    /**
+     * @return the size of the tree
+     */
+    public int size() {
+        return current.get().count;
+    }
+
+    /**
+     * @return Whether the tree is empty or not
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Checks if the tree contains the specified item
+     * @param dta the item to look for in the tree
+     * @return Whether or not the tree contains the item specified
+     */
+    public boolean contains(E dta) {
+        PNode<E> node = current.get().root;
+
+        while (node != null) {
+            int comp = dta.compareTo(node.data);
+
+            if (comp == 0) {
+                return true;
+            }
+            node = comp < 0 ? node.left : node.right;
+        }
+        return false;
+    }
+
+    /**
+     * Clears the tree.  Snapshots already taken keep their items.
+     */
+    public void clear() {
+        current.set(new Version<E>(null, 0));
+    }
+
+    /**
+     * @return an in order iterator over the tree as it was when this was called
+     */
+    public Iterator<E> iterator() {
+        final ArrayDeque<PNode<E>> path = new ArrayDeque<>();
+        for (PNode<E> node = current.get().root; node != null; node = node.left) {
+            path.push(node);
+        }
+
+        return new Iterator<E>() {
+            public boolean hasNext() {
+                return !path.isEmpty();
+            }
+
+            public E next() {
+                if (!hasNext()) {
+                    throw new IndexOutOfBoundsException();
+                }
+
+                PNode<E> node = path.pop();
+                for (PNode<E> next = node.right; next != null; next = next.left) {
+                    path.push(next);
+                }
+                return node.data;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Remove not supported");
+            }
+        };
+    }
+
+    /**
+     * @return a list of the items in the tree in order from minimum to maximum
+     */
+    public ArrayList<E> getInOrder() {
+        ArrayList<E> result = new ArrayList<>(size());
+
+        for (E item : this) {
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * @return a list of the items in the tree in PreOrder
+     */
+    public ArrayList<E> getPreOrder() {
+        Version<E> version = current.get();
+        ArrayList<E> result = new ArrayList<>(version.count);
+        ArrayDeque<PNode<E>> stack = new ArrayDeque<>();
+
+        if (version.root != null) {
+            stack.push(version.root);
+        }
+        while (!stack.isEmpty()) {
+            PNode<E> temp = stack.pop();
+            result.add(temp.data);
+            if (temp.right != null) {
+                stack.push(temp.right);
+            }
+            if (temp.left != null) {
+                stack.push(temp.left);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a list of the items in the tree in PostOrder
+     */
+    public ArrayList<E> getPostOrder() {
+        Version<E> version = current.get();
+        ArrayList<E> result = new ArrayList<>(version.count);
+        ArrayDeque<PNode<E>> stack = new ArrayDeque<>();
+        PNode<E> node = version.root;
+        PNode<E> lastVisited = null;
+
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                stack.push(node);
+                node = node.left;
+            } else {
+                PNode<E> top = stack.peek();
+                if (top.right != null && top.right != lastVisited) {
+                    node = top.right;
+                } else {
+                    result.add(top.data);
+                    lastVisited = stack.pop();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a list of the items in the tree in Level Order
+     */
+    public ArrayList<E> getLevelOrder() {
+        Version<E> version = current.get();
+        ArrayList<E> result = new ArrayList<>(version.count);
+        ArrayDeque<PNode<E>> q = new ArrayDeque<>();
+
+        if (version.root != null) {
+            q.addLast(version.root);
+        }
+        while (!q.isEmpty()) {
+            PNode<E> temp = q.poll();
+            result.add(temp.data);
+            if (temp.left != null) {
+                q.addLast(temp.left);
+            }
+            if (temp.right != null) {
+                q.addLast(temp.right);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A root together with its item count, published as one unit
+     */
+    private static final class Version<T> {
+        final PNode<T> root;
+        final int count;
+
+        Version(PNode<T> root, int count) {
+            this.root = root;
+            this.count = count;
+        }
+    }
+
+    /**
+     * An immutable node, shared between every version that contains it
+     */
+    private static final class PNode<T> {
+        final PNode<T> left;
+        final PNode<T> right;
+        final T data;
+
+        PNode(T dta, PNode<T> l, PNode<T> r) {
+            left = l;
+            right = r;
+            data = dta;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+import java.util.TreeSet;
+
+/**
+ * Builds trees from sorted input, the worst case for BST, which turns into a
+ * linked list.  Before add, remove and the traversals were iterative this
+ * overflowed the stack past roughly 10000 nodes.
+ */
+public class SortedInsertTimer {
+    public static final int TEST_INPUT_SIZE = 50000;
+    public static void main(String[] args) {
+        System.out.println("Timing Test");
+        System.out.println(TEST_INPUT_SIZE + " sorted entries  Built-in tree");
+        TreeSet<Integer> javaTree = new TreeSet<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            javaTree.add(i);
+        }
+        long stop = System.nanoTime();
+
+        System.out.println("Time to build tree: " + (stop - start));
+
+        javaTree = null;
+
+        System.out.println("\nYour Tree: ");
+
+        BST<Integer> myTree = new BST<>();
+
+        start = System.nanoTime();
+        for (int i = 0; i < TEST_INPUT_SIZE; ++i) {
+            myTree.add(i);
+        }
+        stop = System.nanoTime();
+
+        System.out.println("Time to build tree: " + (stop - start));
+
+        start = System.nanoTime();
+        myTree.getInOrder();
+        myTree.getPreOrder();
+        myTree.getPostOrder();
+        stop = System.nanoTime();
+
+        System.out.println("Time for in, pre and post order: " + (stop - start));
+
+        start = System.nanoTime();
+        myTree.remove(TEST_INPUT_SIZE - 1);
+        stop = System.nanoTime();
+
+        System.out.println("Time to remove deepest item: " + (stop - start));
+    }
+}
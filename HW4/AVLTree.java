@@ -1,15 +1,39 @@
+import java.util.AbstractSet;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Implementation of an AVL Binary Search Tree
+ *
+ * add and remove share one scratch array for their search path, so a tree is
+ * not reentrant: an item's compareTo must not call back into the same tree,
+ * and the tree is not safe for more than one thread without outside locking.
  * @author Zack Sparks
  * @version 1.0
  */
 public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iterable<E> {
+    /** deeper than any AVL tree of up to 2^31 nodes can get (about 1.44 log2 n) */
+    private static final int MAX_HEIGHT = 64;
+
+    /** set operations on subtrees at least this tall split into parallel tasks */
+    private static final int PARALLEL_HEIGHT = 14;
+
+    private static final int UNION = 0;
+    private static final int INTERSECT = 1;
+    private static final int DIFFERENCE = 2;
+
     AVLNode<E> root;
     int nodeCount;
+    /** bumped by every change, so iterators can fail fast */
+    private int modCount;
+    /** scratch space for the search path of add and remove, reused by every call */
+    private AVLNode<E>[] path;
 
     /**
      * Constructs a new empty AVL tree
@@ -17,6 +41,16 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
     public AVLTree() {
         root = null;
         nodeCount = 0;
+        path = newPath();
+    }
+
+    /**
+     * The array only ever holds this tree's nodes, so the unchecked cast is safe
+     * @return scratch space for a search path as deep as any AVL tree can get
+     */
+    @SuppressWarnings("unchecked")
+    private AVLNode<E>[] newPath() {
+        return (AVLNode<E>[]) new AVLNode<?>[MAX_HEIGHT];
     }
 
     /**
@@ -28,34 +62,88 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
         if (item == null) {
             return false;
         }
-        int oldSize = nodeCount;
-        root = addMe(item, root);
-        return oldSize < nodeCount;
+
+        if (root == null) {
+            root = new AVLNode<>(item);
+            nodeCount++;
+            modCount++;
+            return true;
+        }
+
+        int depth = 0;
+        AVLNode<E> node = root;
+
+        while (true) {
+            int comp = item.compareTo(node.data);
+
+            if (comp == 0) {
+                return false;
+            }
+
+            path[depth++] = node;
+            if (comp < 0) { //item < node.data
+                if (node.left == null) {
+                    node.left = new AVLNode<>(item);
+                    break;
+                }
+                node = node.left;
+            } else { //item > node.data
+                if (node.right == null) {
+                    node.right = new AVLNode<>(item);
+                    break;
+                }
+                node = node.right;
+            }
+        }
+
+        nodeCount++;
+        modCount++;
+        retrace(depth, 1);
+        return true;
     }
 
     /**
-     * Helper method for add with calls to rotations
-     * @param dta the item to be added to the tree
-     * @param node the root of the subtree that the item is be added to
-     * @return Whether or not the item was added to the tree or not
+     * Walks back up the search path left in path, fixing heights and sizes and
+     * rotating where needed.  Once a subtree comes out the same height it went
+     * in nothing above it can need rotating, so the rest of the path only has
+     * its sizes adjusted.
+     * @param depth the number of nodes on the path
+     * @param delta the change in the number of items below each node on the path
      */
-    private AVLNode<E> addMe(E dta, AVLNode<E> node) {
-        if (node == null) {
-            nodeCount++;
-            AVLNode<E> newNode = new AVLNode<>(dta);
-            newNode.height = updateHeight(newNode);
-            return newNode;
-        } else {
-            int comp = dta.compareTo(node.data);
-
-            if (comp > 0) { //dta > node.data
-                node.right = addMe(dta, node.right);
-            } else if (comp < 0) { //dta < node.data
-                node.left = addMe(dta, node.left);
+    private void retrace(int depth, int delta) {
+        for (int i = depth - 1; i >= 0; i--) {
+            AVLNode<E> node = path[i];
+            int oldHeight = node.height;
+            AVLNode<E> balanced = rebalance(node);
+
+            path[i] = null;
+            if (balanced != node) {
+                replaceChild(i == 0 ? null : path[i - 1], node, balanced);
+            }
+            if (balanced.height == oldHeight) {
+                while (i > 0) {
+                    path[--i].size += delta;
+                    path[i] = null;
+                }
+                return;
             }
         }
+    }
 
-        return rebalance(node);
+    /**
+     * Points whichever link of parent referred to oldChild at newChild instead
+     * @param parent the parent of oldChild, or null if oldChild is the root
+     * @param oldChild the node being replaced
+     * @param newChild the node taking its place
+     */
+    private void replaceChild(AVLNode<E> parent, AVLNode<E> oldChild, AVLNode<E> newChild) {
+        if (parent == null) {
+            root = newChild;
+        } else if (parent.left == oldChild) {
+            parent.left = newChild;
+        } else {
+            parent.right = newChild;
+        }
     }
 
     /**
@@ -255,13 +343,15 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
     public void clear() {
         root = null;
         nodeCount = 0;
+        modCount++;
     }
 
     /**
-     * @return an in order iterator of the tree
+     * @return an in order iterator of the tree, which fails fast if the tree
+     *         is changed while it is in use
      */
     public Iterator<E> iterator() {
-        return new MyBSTIterator(this);
+        return new MyBSTIterator();
     }
 
     /**
@@ -273,74 +363,47 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
         if (dta == null || root == null) {
             return false;
         }
-        int beginSize = this.size();
-        root = remove(root, dta);
-        return beginSize != this.size();
-    }
-
-    /**
-     * Helper function for remove method
-     * @param node Specifies the root of the subtree to be searched/have the item removed from
-     * @param dta The item to be removed from the subtree
-     * @return the root of the new subtree sans the item specified
-     */
-    private AVLNode<E> remove(AVLNode<E> node, E dta) {
-        if (node == null) {
-            return null;
-        }
 
-        int comp = dta.compareTo(node.data);
+        int depth = 0;
+        AVLNode<E> node = root;
 
-        if (comp < 0) {
-            node.left = remove(node.left, dta);
-        } else if (comp > 0) {
-            node.right = remove(node.right, dta);
-        } else {
-            if (node.right == null) {
-                nodeCount--;
-                return node.left;
-            }
+        while (node != null) {
+            int comp = dta.compareTo(node.data);
 
-            if (node.left == null) {
-                nodeCount--;
-                return node.right;
+            if (comp == 0) {
+                break;
             }
-
-            AVLNode<E> temp = node;
-            node = min(temp.right);
-            node.right = removeMin(temp.right);
-            node.left = temp.left;
+            path[depth++] = node;
+            node = comp < 0 ? node.left : node.right;
         }
-        return node;
-        //return rebalance(node);
-    }
 
-    /**
-     * Helper method that removes the minimum item from the subtree rooted at the node specified
-     * @param node the root of the subtree from which the minimum item is to be removed from
-     * @return The root of the subtree specified with the item removed
-     */
-    private AVLNode<E> removeMin(AVLNode<E> node) {
-        if (node.left == null) {
-            nodeCount--;
-            return node.right;
+        if (node == null) {
+            while (depth > 0) {
+                path[--depth] = null;
+            }
+            return false;
         }
 
-        node.left = removeMin(node.left);
-        return rebalance(node);
-    }
+        if (node.left != null && node.right != null) {
+            // take the successor's item and remove the successor instead
+            path[depth++] = node;
+            AVLNode<E> succ = node.right;
 
-    /**
-     * Returns the minimum node of the subtree specified by @param node
-     * @param node the root of the subtree from which the minimum node is to be returned
-     * @return the node which contains the minimum item from the subtree specified
-     */
-    private AVLNode<E> min(AVLNode<E> node) {
-        if (node.left == null) {
-            return node;
+            while (succ.left != null) {
+                path[depth++] = succ;
+                succ = succ.left;
+            }
+            node.data = succ.data;
+            replaceChild(path[depth - 1], succ, succ.right);
         } else {
-            return min(node.left);
+            AVLNode<E> child = node.left != null ? node.left : node.right;
+            replaceChild(depth == 0 ? null : path[depth - 1], node, child);
         }
+
+        nodeCount--;
+        modCount++;
+        retrace(depth, -1);
+        return true;
     }
 
     /**
@@ -354,8 +417,8 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
         temp.left = node.right;
         node.right = temp;
 
-        node.right.height = updateHeight(node.right);
-        node.height = updateHeight(node);
+        update(node.right);
+        update(node);
         return node;
     }
 
@@ -370,8 +433,8 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
         temp.right = node.left;
         node.left = temp;
 
-        node.left.height = updateHeight(node.left);
-        node.height = updateHeight(node);
+        update(node.left);
+        update(node);
         return node;
     }
 
@@ -401,16 +464,25 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
             }
         }
 
-        node.height = updateHeight(node);
+        update(node);
         return node;
     }
 
+    /**
+     * Recomputes a node's height and size from its children's
+     * @param node the node whose children are already up to date
+     */
+    private void update(AVLNode<E> node) {
+        node.height = updateHeight(node);
+        node.size = getSize(node.left) + getSize(node.right) + 1;
+    }
+
     /**
      * Returns the height of the specified node
      * @param node the specified node to get the height of
      * @return the height of the node specified
      */
-    private int updateHeight(AVLNode node) {
+    private int updateHeight(AVLNode<E> node) {
         if (node == null) {
             return -1;
         } else {
@@ -423,7 +495,7 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
      * @param node specified to have the height measured
      * @return the height of the specified node
      */
-    private int getHeight(AVLNode node) {
+    private int getHeight(AVLNode<E> node) {
         if (node == null) {
             return -1;
         } else {
@@ -431,46 +503,327 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
         }
     }
 
-    public E floor(E value) {
-        if (value == null) {
+    /**
+     * @param node the root of a subtree, or null
+     * @return the number of items in the subtree
+     */
+    private int getSize(AVLNode<E> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Counts the items below value in O(log n), using the subtree sizes
+     * @param value the item to count up to
+     * @param inclusive whether an item equal to value counts
+     * @return the number of items less than value, or at most value if inclusive
+     */
+    private int rank(E value, boolean inclusive) {
+        int count = 0;
+        AVLNode<E> node = root;
+
+        while (node != null) {
+            int comp = value.compareTo(node.data);
+
+            if (comp > 0 || inclusive && comp == 0) {
+                count += getSize(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Adds every item of other to this tree.  other is left unchanged.
+     * Runs in O(m log(n / m + 1)) work for trees of size m <= n, and
+     * splits the work across the common fork-join pool.
+     * @param other the tree whose items are added
+     */
+    public void union(AVLTree<E> other) {
+        SetOperation task = new SetOperation(UNION, root, copy(other.root));
+        root = task.invoke();
+        nodeCount += other.nodeCount - task.found;
+        modCount++;
+    }
+
+    /**
+     * Removes every item from this tree that is not in other.  other is left unchanged.
+     * @param other the tree whose items are kept
+     */
+    public void intersect(AVLTree<E> other) {
+        SetOperation task = new SetOperation(INTERSECT, root, copy(other.root));
+        root = task.invoke();
+        nodeCount = task.found;
+        modCount++;
+    }
+
+    /**
+     * Removes every item from this tree that is in other.  other is left unchanged.
+     * @param other the tree whose items are removed
+     */
+    public void difference(AVLTree<E> other) {
+        SetOperation task = new SetOperation(DIFFERENCE, root, other.root);
+        root = task.invoke();
+        nodeCount -= task.found;
+        modCount++;
+    }
+
+    /**
+     * Adds a run of items already in ascending order.  They are built into a
+     * balanced tree in O(m) and unioned in, instead of being added one by one.
+     * @param sorted the items in ascending order, duplicates allowed
+     * @return the number of items that were added
+     */
+    public int addAll(Iterable<? extends E> sorted) {
+        ArrayList<E> items = new ArrayList<>();
+        for (E item : sorted) {
+            if (item != null && (items.isEmpty() || item.compareTo(items.get(items.size() - 1)) != 0)) {
+                items.add(item);
+            }
+        }
+
+        SetOperation task = new SetOperation(UNION, root, buildBalanced(items, 0, items.size() - 1));
+        root = task.invoke();
+        int added = items.size() - task.found;
+        nodeCount += added;
+        modCount++;
+        return added;
+    }
+
+    /**
+     * Helper method for addAll, makes the middle item the root of each subtree
+     * @param items the items in ascending order
+     * @param lo the first index of the subtree's items
+     * @param hi the last index of the subtree's items
+     * @return the root of the balanced subtree, null if lo > hi
+     */
+    private AVLNode<E> buildBalanced(ArrayList<E> items, int lo, int hi) {
+        if (lo > hi) {
             return null;
         }
 
-        int comp = value.compareTo(min(root).data);
+        int mid = (lo + hi) >>> 1;
+        AVLNode<E> node = new AVLNode<>(items.get(mid), buildBalanced(items, lo, mid - 1),
+                buildBalanced(items, mid + 1, hi));
+        update(node);
+        return node;
+    }
 
-        if (comp <= 0) {
+    /**
+     * @param node the root of the subtree to copy
+     * @return a copy of the subtree sharing no nodes with it
+     */
+    private AVLNode<E> copy(AVLNode<E> node) {
+        if (node == null) {
             return null;
         }
 
-        return floor(root, value).data;
+        AVLNode<E> result = new AVLNode<>(node.data, copy(node.left), copy(node.right));
+        result.height = node.height;
+        result.size = node.size;
+        return result;
+    }
+
+    /**
+     * Joins two trees and a node between them into one balanced tree.  Every
+     * item in l must be less than middle's and every item in r greater.
+     * Runs in O(|height(l) - height(r)| + 1).
+     * @param l the left tree
+     * @param middle the node that goes between them, its links are overwritten
+     * @param r the right tree
+     * @return the root of the joined tree
+     */
+    private AVLNode<E> join(AVLNode<E> l, AVLNode<E> middle, AVLNode<E> r) {
+        if (getHeight(l) > getHeight(r) + 1) {
+            l.right = join(l.right, middle, r);
+            return rebalance(l);
+        }
+        if (getHeight(r) > getHeight(l) + 1) {
+            r.left = join(l, middle, r.left);
+            return rebalance(r);
+        }
+
+        middle.left = l;
+        middle.right = r;
+        update(middle);
+        return middle;
+    }
+
+    /**
+     * Joins two trees where every item in l is less than every item in r
+     * @param l the left tree
+     * @param r the right tree
+     * @return the root of the joined tree
+     */
+    private AVLNode<E> join(AVLNode<E> l, AVLNode<E> r) {
+        if (l == null) {
+            return r;
+        }
+
+        Split last = splitLast(l);
+        return join(last.left, last.middle, r);
+    }
+
+    /**
+     * Splits a tree around a key, taking it apart as it goes
+     * @param node the root of the tree to split
+     * @param key the item to split around
+     * @return the items less than key, the node holding key if there is one,
+     *         and the items greater than key
+     */
+    private Split split(AVLNode<E> node, E key) {
+        if (node == null) {
+            return new Split(null, null, null);
+        }
+
+        int comp = key.compareTo(node.data);
+
+        if (comp == 0) {
+            return new Split(node.left, node, node.right);
+        } else if (comp < 0) {
+            Split result = split(node.left, key);
+            result.right = join(result.right, node, node.right);
+            return result;
+        } else {
+            Split result = split(node.right, key);
+            result.left = join(node.left, node, result.left);
+            return result;
+        }
+    }
+
+    /**
+     * Splits the maximum node off a tree
+     * @param node the root of a non-empty tree
+     * @return the rest of the tree on the left and the maximum node in the middle
+     */
+    private Split splitLast(AVLNode<E> node) {
+        if (node.right == null) {
+            return new Split(node.left, node, null);
+        }
+
+        Split result = splitLast(node.right);
+        result.left = join(node.left, node, result.left);
+        return result;
+    }
+
+    /**
+     * Kept strictly less than value, the way callers of this tree have always used it
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E floor(E value) {
+        return below(value, false);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E lower(E value) {
+        return below(value, false);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the least item greater than or equal to value, null if there is none
+     */
+    public E ceiling(E value) {
+        return above(value, true);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the least item strictly greater than value, null if there is none
+     */
+    public E higher(E value) {
+        return above(value, false);
     }
 
-    private AVLNode<E> floor(AVLNode<E> node, E value) {
-        if (node == null || value == null) {
+    /**
+     * Helper method for floor and lower, one pass down from the root
+     * @param value the item to look around
+     * @param inclusive whether an item equal to value counts
+     * @return the greatest item below value, null if there is none
+     */
+    private E below(E value, boolean inclusive) {
+        if (value == null) {
             return null;
         }
 
-        int comp = value.compareTo(node.data);
+        AVLNode<E> best = null;
+        AVLNode<E> node = root;
+
+        while (node != null) {
+            int comp = value.compareTo(node.data);
 
-        if (comp <= 0) {
-            if (node.left != null) {
-                return floor(node.left, value);
+            if (comp > 0 || inclusive && comp == 0) {
+                best = node;
+                node = node.right;
             } else {
-                return null;
+                node = node.left;
             }
-        } else {
-            if (node.right == null) {
-                return node;
-            } else {
-                int cmp = value.compareTo(min(node.right).data);
+        }
+        return best == null ? null : best.data;
+    }
 
-                if (cmp > 0) {
-                    return floor(node.right, value);
-                } else {
-                    return node;
-                }
+    /**
+     * Helper method for ceiling and higher, one pass down from the root
+     * @param value the item to look around
+     * @param inclusive whether an item equal to value counts
+     * @return the least item above value, null if there is none
+     */
+    private E above(E value, boolean inclusive) {
+        if (value == null) {
+            return null;
+        }
+
+        AVLNode<E> best = null;
+        AVLNode<E> node = root;
+
+        while (node != null) {
+            int comp = value.compareTo(node.data);
+
+            if (comp < 0 || inclusive && comp == 0) {
+                best = node;
+                node = node.left;
+            } else {
+                node = node.right;
             }
         }
+        return best == null ? null : best.data;
+    }
+
+    /**
+     * @param to the upper bound
+     * @param inclusive whether to itself is in the view
+     * @return a view of the items below to, changes write through to this tree
+     */
+    public SortedSet<E> headSet(E to, boolean inclusive) {
+        return new RangeView(null, false, to, inclusive);
+    }
+
+    /**
+     * @param from the lower bound
+     * @param inclusive whether from itself is in the view
+     * @return a view of the items above from, changes write through to this tree
+     */
+    public SortedSet<E> tailSet(E from, boolean inclusive) {
+        return new RangeView(from, inclusive, null, false);
+    }
+
+    /**
+     * @param from the lower bound
+     * @param fromInclusive whether from itself is in the view
+     * @param to the upper bound
+     * @param toInclusive whether to itself is in the view
+     * @return a view of the items between from and to, changes write through to this tree
+     */
+    public SortedSet<E> subSet(E from, boolean fromInclusive, E to, boolean toInclusive) {
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("from is greater than to");
+        }
+        return new RangeView(from, fromInclusive, to, toInclusive);
     }
 
     /**
@@ -478,43 +831,371 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
      * @param node node to have balanced factor returned for
      * @return the balance factor of the node specified
      */
-    private int getBalance(AVLNode node) {
+    private int getBalance(AVLNode<E> node) {
         return getHeight(node.left) - getHeight(node.right);
     }
 
     /**
-     * The Iterator class for AVL
-     * @param <T> Typed Data structure (must be comparable)
+     * The pieces a tree is split into
+     */
+    private class Split {
+        AVLNode<E> left;
+        AVLNode<E> middle;
+        AVLNode<E> right;
+
+        Split(AVLNode<E> l, AVLNode<E> m, AVLNode<E> r) {
+            left = l;
+            middle = m;
+            right = r;
+        }
+    }
+
+    /**
+     * Union, intersection or difference of two trees, found by splitting one
+     * tree around the other's root and working on the two halves in
+     * parallel.  Both trees are taken apart to build the result.
      */
-    class MyBSTIterator<T extends Comparable<? super T>> implements Iterator {
-        ArrayList<T> inOrder;
-        int cursor;
+    private class SetOperation extends RecursiveTask<AVLNode<E>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int op;
+        private final AVLNode<E> a;
+        private final AVLNode<E> b;
+        /** items found in both trees */
+        int found;
+
+        SetOperation(int op, AVLNode<E> a, AVLNode<E> b) {
+            this.op = op;
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected AVLNode<E> compute() {
+            return apply(a, b);
+        }
 
         /**
-         * Constructs a new MyBSTIterator
-         * @param aVL the AVL to be iterator over
+         * @param a the root of the tree the result is built from
+         * @param b the root of the tree being added, kept or removed
+         * @return the root of the result
          */
-        public MyBSTIterator(AVLTree<T> aVL) {
-            inOrder = aVL.getInOrder();
-            cursor = 0;
+        private AVLNode<E> apply(AVLNode<E> a, AVLNode<E> b) {
+            if (a == null) {
+                return op == UNION ? b : null;
+            }
+            if (b == null) {
+                return op == INTERSECT ? null : a;
+            }
+
+            // a difference keeps no node of b, so split a around b instead
+            AVLNode<E> pivot = op == DIFFERENCE ? b : a;
+            AVLNode<E> pivotLeft = pivot.left;
+            AVLNode<E> pivotRight = pivot.right;
+            Split split = split(op == DIFFERENCE ? a : b, pivot.data);
+
+            if (split.middle != null) {
+                found++;
+            }
+
+            AVLNode<E> l;
+            AVLNode<E> r;
+            if (pivot.height >= PARALLEL_HEIGHT) {
+                SetOperation left = op == DIFFERENCE ? new SetOperation(op, split.left, pivotLeft)
+                        : new SetOperation(op, pivotLeft, split.left);
+                left.fork();
+                r = op == DIFFERENCE ? apply(split.right, pivotRight) : apply(pivotRight, split.right);
+                l = left.join();
+                found += left.found;
+            } else if (op == DIFFERENCE) {
+                l = apply(split.left, pivotLeft);
+                r = apply(split.right, pivotRight);
+            } else {
+                l = apply(pivotLeft, split.left);
+                r = apply(pivotRight, split.right);
+            }
+
+            if (op == UNION || op == INTERSECT && split.middle != null) {
+                return AVLTree.this.join(l, pivot, r);
+            }
+            return AVLTree.this.join(l, r);
+        }
+    }
+
+    /**
+     * The view returned by headSet, tailSet and subSet.  A null bound means
+     * the view is open on that side.  Its iterators walk the live tree, so
+     * the tree must not change while one is in use.
+     */
+    class RangeView extends AbstractSet<E> implements SortedSet<E> {
+        final E lo;
+        final boolean loInclusive;
+        final E hi;
+        final boolean hiInclusive;
+
+        RangeView(E lo, boolean loInclusive, E hi, boolean hiInclusive) {
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+        }
+
+        private boolean aboveLo(E item) {
+            if (lo == null) {
+                return true;
+            }
+            int comp = item.compareTo(lo);
+            return comp > 0 || loInclusive && comp == 0;
+        }
+
+        private boolean belowHi(E item) {
+            if (hi == null) {
+                return true;
+            }
+            int comp = item.compareTo(hi);
+            return comp < 0 || hiInclusive && comp == 0;
+        }
+
+        private boolean inRange(Object o) {
+            if (o == null) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            E item = (E) o;
+            return aboveLo(item) && belowHi(item);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            final ArrayDeque<AVLNode<E>> path = new ArrayDeque<>();
+            AVLNode<E> node = root;
+
+            while (node != null) {
+                if (aboveLo(node.data)) {
+                    path.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+
+            return new Iterator<E>() {
+                public boolean hasNext() {
+                    return !path.isEmpty() && belowHi(path.peek().data);
+                }
+
+                public E next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    AVLNode<E> next = path.pop();
+                    for (AVLNode<E> n = next.right; n != null; n = n.left) {
+                        path.push(n);
+                    }
+                    return next.data;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException("Remove not supported");
+                }
+            };
+        }
+
+        /**
+         * The difference of the bounds' ranks, so O(log n) however many items are in range
+         */
+        @Override
+        public int size() {
+            int below = lo == null ? 0 : rank(lo, !loInclusive);
+            int upTo = hi == null ? nodeCount : rank(hi, hiInclusive);
+            return Math.max(upTo - below, 0);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            return inRange(o) && AVLTree.this.contains((E) o);
+        }
+
+        @Override
+        public boolean add(E item) {
+            if (!inRange(item)) {
+                throw new IllegalArgumentException(item + " is outside the view");
+            }
+            return AVLTree.this.add(item);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            return inRange(o) && AVLTree.this.remove((E) o);
+        }
+
+        /**
+         * Splits the tree at both bounds and joins the outer parts back
+         * together, so O(log n) however many items are in range
+         */
+        @Override
+        public void clear() {
+            AVLNode<E> below = null;
+            AVLNode<E> rest = root;
+
+            if (lo != null) {
+                Split split = split(rest, lo);
+                below = split.left;
+                rest = split.right;
+                if (split.middle != null) {
+                    if (loInclusive) {
+                        rest = join(null, split.middle, rest);
+                    } else {
+                        below = join(below, split.middle, null);
+                    }
+                }
+            }
+
+            AVLNode<E> above = null;
+            int removed = getSize(rest);
+
+            if (hi != null) {
+                Split split = split(rest, hi);
+                above = split.right;
+                removed = getSize(split.left);
+                if (split.middle != null) {
+                    if (hiInclusive) {
+                        removed++;
+                    } else {
+                        above = join(null, split.middle, above);
+                    }
+                }
+            }
+
+            root = join(below, above);
+            nodeCount -= removed;
+            modCount++;
+        }
+
+        public Comparator<? super E> comparator() {
+            return null;
+        }
+
+        public E first() {
+            E first = lo == null ? min() : above(lo, loInclusive);
+            if (first == null || !belowHi(first)) {
+                throw new NoSuchElementException();
+            }
+            return first;
+        }
+
+        public E last() {
+            E last = hi == null ? max() : below(hi, hiInclusive);
+            if (last == null || !aboveLo(last)) {
+                throw new NoSuchElementException();
+            }
+            return last;
+        }
+
+        public SortedSet<E> subSet(E from, E to) {
+            if (from.compareTo(to) > 0) {
+                throw new IllegalArgumentException("from is greater than to");
+            }
+            return narrow(from, true, to, false);
+        }
+
+        public SortedSet<E> headSet(E to) {
+            return narrow(null, false, to, false);
+        }
+
+        public SortedSet<E> tailSet(E from) {
+            return narrow(from, true, null, false);
+        }
+
+        /**
+         * @param from the new lower bound, null to keep this view's
+         * @param fromInclusive whether from itself is in the new view
+         * @param to the new upper bound, null to keep this view's
+         * @param toInclusive whether to itself is in the new view
+         * @return a view of the items in both this view and the given bounds
+         */
+        private SortedSet<E> narrow(E from, boolean fromInclusive, E to, boolean toInclusive) {
+            if (from == null) {
+                from = lo;
+                fromInclusive = loInclusive;
+            } else if (lo != null) {
+                int comp = from.compareTo(lo);
+                if (comp < 0) {
+                    throw new IllegalArgumentException(from + " is outside the view");
+                }
+                fromInclusive &= comp > 0 || loInclusive;
+            }
+
+            if (to == null) {
+                to = hi;
+                toInclusive = hiInclusive;
+            } else if (hi != null) {
+                int comp = to.compareTo(hi);
+                if (comp > 0) {
+                    throw new IllegalArgumentException(to + " is outside the view");
+                }
+                toInclusive &= comp < 0 || hiInclusive;
+            }
+            if (from != null && to != null && from.compareTo(to) > 0) {
+                throw new IllegalArgumentException("bound is outside the view");
+            }
+            return new RangeView(from, fromInclusive, to, toInclusive);
+        }
+    }
+
+    /**
+     * The Iterator class for AVL.  It walks the tree lazily, keeping only the
+     * nodes on the way down to the next item.
+     */
+    class MyBSTIterator implements Iterator<E> {
+        private final ArrayDeque<AVLNode<E>> stack = new ArrayDeque<>();
+        private final int expectedModCount = modCount;
+
+        /**
+         * Constructs a new MyBSTIterator starting at the minimum item
+         */
+        public MyBSTIterator() {
+            pushLeft(root);
+        }
+
+        /**
+         * @param node the node to push along with its chain of left children
+         */
+        private void pushLeft(AVLNode<E> node) {
+            for (; node != null; node = node.left) {
+                stack.push(node);
+            }
         }
 
         /**
          * @return the next item from the AVL
          */
-        public T next() {
+        public E next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
             if (!hasNext()) {
-                throw new IndexOutOfBoundsException();
+                throw new NoSuchElementException();
             }
 
-            return inOrder.get(cursor++);
+            AVLNode<E> next = stack.pop();
+            pushLeft(next.right);
+            return next.data;
         }
 
         /**
          * @return whether or not there is another item to be returned
          */
         public boolean hasNext() {
-            return inOrder != null && cursor < inOrder.size();
+            return !stack.isEmpty();
         }
 
         /**
@@ -529,11 +1210,13 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
      * This is the node to be used in the AVL
      * @param <T> Typed data structure
      */
-    class AVLNode<T extends Comparable<? super T>> {
+    static class AVLNode<T extends Comparable<? super T>> {
         AVLNode<T> left;
         AVLNode<T> right;
         T data;
         int height;
+        /** the number of items in the subtree rooted here */
+        int size;
 
         public AVLNode(T dta) {
             this(dta, null, null);
@@ -544,6 +1227,7 @@ public class AVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iter
             right = r;
             data = dta;
             height = 0;
+            size = 1;
         }
     }
 }
\ No newline at end of file
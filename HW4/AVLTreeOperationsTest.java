@@ -0,0 +1,235 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+
+/**
+ * Tests of the set operations, navigation and range views only AVLTree has,
+ * kept out of AVLTreeTest so the trees that reuse that suite don't run them
+ */
+public class AVLTreeOperationsTest {
+
+	@Test
+	public void testSetOperations() {
+		Random random = new Random(9);
+		for (int round = 0; round < 6; ++round) {
+			int size = round < 3 ? 300 : 60000;
+			TreeSet<Integer> first = new TreeSet<>();
+			TreeSet<Integer> second = new TreeSet<>();
+			for (int i = 0; i < size; ++i) {
+				first.add(random.nextInt(size * 2));
+				second.add(random.nextInt(size * 2 >> round % 3));
+			}
+
+			TreeSet<Integer> expected = new TreeSet<>(first);
+			expected.addAll(second);
+			AVLTree<Integer> other = treeOf(second);
+			AVLTree<Integer> tree = treeOf(first);
+			tree.union(other);
+			assertEquals(new ArrayList<>(expected), tree.getInOrder());
+			assertEquals(expected.size(), tree.size());
+			assertEquals(new ArrayList<>(second), other.getInOrder());
+			checkBalanced(tree.root);
+
+			expected = new TreeSet<>(first);
+			expected.retainAll(second);
+			tree = treeOf(first);
+			tree.intersect(other);
+			assertEquals(new ArrayList<>(expected), tree.getInOrder());
+			assertEquals(expected.size(), tree.size());
+			checkBalanced(tree.root);
+
+			expected = new TreeSet<>(first);
+			expected.removeAll(second);
+			tree = treeOf(first);
+			tree.difference(other);
+			assertEquals(new ArrayList<>(expected), tree.getInOrder());
+			assertEquals(expected.size(), tree.size());
+			assertEquals(new ArrayList<>(second), other.getInOrder());
+			checkBalanced(tree.root);
+
+			expected = new TreeSet<>(first);
+			ArrayList<Integer> sorted = new ArrayList<>(second);
+			sorted.add(sorted.size() / 2, sorted.get(sorted.size() / 2));
+			int before = expected.size();
+			expected.addAll(second);
+			tree = treeOf(first);
+			assertEquals(expected.size() - before, tree.addAll(sorted));
+			assertEquals(new ArrayList<>(expected), tree.getInOrder());
+			assertEquals(expected.size(), tree.size());
+			checkBalanced(tree.root);
+		}
+
+		AVLTree<Integer> empty = new AVLTree<>();
+		AVLTree<Integer> tree = treeOf(new TreeSet<>(Arrays.asList(1, 2, 3)));
+		tree.union(empty);
+		tree.difference(empty);
+		assertEquals(Arrays.asList(1, 2, 3), tree.getInOrder());
+		tree.intersect(empty);
+		assertTrue(tree.isEmpty());
+	}
+
+	@Test
+	public void testNavigation() {
+		AVLTree<Integer> tree = new AVLTree<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		assertNull(tree.floor(3));
+		assertNull(tree.ceiling(3));
+		Random random = new Random(13);
+		for (int i = 0; i < 400; ++i) {
+			int value = random.nextInt(1000);
+			tree.add(value);
+			expected.add(value);
+		}
+
+		for (int value = -1; value <= 1001; ++value) {
+			assertEquals(expected.lower(value), tree.floor(value));
+			assertEquals(expected.lower(value), tree.lower(value));
+			assertEquals(expected.ceiling(value), tree.ceiling(value));
+			assertEquals(expected.higher(value), tree.higher(value));
+		}
+		assertNull(tree.floor(null));
+	}
+
+	@Test
+	public void testRangeViews() {
+		AVLTree<Integer> tree = new AVLTree<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(17);
+		for (int i = 0; i < 300; ++i) {
+			int value = random.nextInt(600);
+			tree.add(value);
+			expected.add(value);
+		}
+
+		for (int i = 0; i < 200; ++i) {
+			int lo = random.nextInt(620) - 10;
+			int hi = lo + random.nextInt(200);
+			boolean loInclusive = random.nextBoolean();
+			boolean hiInclusive = random.nextBoolean();
+			assertEquals(new ArrayList<>(expected.subSet(lo, loInclusive, hi, hiInclusive)),
+					new ArrayList<>(tree.subSet(lo, loInclusive, hi, hiInclusive)));
+			assertEquals(new ArrayList<>(expected.headSet(hi, hiInclusive)),
+					new ArrayList<>(tree.headSet(hi, hiInclusive)));
+			assertEquals(new ArrayList<>(expected.tailSet(lo, loInclusive)),
+					new ArrayList<>(tree.tailSet(lo, loInclusive)));
+
+			SortedSet<Integer> view = tree.subSet(lo, loInclusive, hi, hiInclusive);
+			SortedSet<Integer> expectedView = expected.subSet(lo, loInclusive, hi, hiInclusive);
+			assertEquals(expectedView.size(), view.size());
+			assertEquals(expectedView.isEmpty(), view.isEmpty());
+			if (!expectedView.isEmpty()) {
+				assertEquals(expectedView.first(), view.first());
+				assertEquals(expectedView.last(), view.last());
+			}
+			int mid = lo + (hi - lo) / 2;
+			assertEquals(new ArrayList<>(expectedView.headSet(mid)), new ArrayList<>(view.headSet(mid)));
+			assertEquals(new ArrayList<>(expectedView.tailSet(mid)), new ArrayList<>(view.tailSet(mid)));
+			assertEquals(expectedView.contains(mid), view.contains(mid));
+		}
+
+		SortedSet<Integer> view = tree.subSet(100, true, 200, false);
+		try {
+			view.add(200);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// outside the view
+		}
+		view.add(150);
+		expected.add(150);
+		view.remove(120);
+		expected.remove(120);
+		view.headSet(130).clear();
+		expected.subSet(100, 130).clear();
+		assertEquals(new ArrayList<>(expected), tree.getInOrder());
+		view.clear();
+		assertTrue(view.isEmpty());
+		assertEquals(expected.size() - expected.subSet(100, 200).size(), tree.size());
+	}
+
+	@Test
+	public void testRangeViewClear() {
+		Random random = new Random(23);
+		for (int i = 0; i < 300; ++i) {
+			AVLTree<Integer> tree = new AVLTree<>();
+			TreeSet<Integer> expected = new TreeSet<>();
+			for (int j = random.nextInt(400); j > 0; --j) {
+				int value = random.nextInt(500);
+				tree.add(value);
+				expected.add(value);
+			}
+
+			int lo = random.nextInt(520) - 10;
+			int hi = lo + random.nextInt(i % 10 == 0 ? 2 : 300);
+			boolean loInclusive = random.nextBoolean();
+			boolean hiInclusive = random.nextBoolean();
+			switch (i % 3) {
+			case 0:
+				tree.subSet(lo, loInclusive, hi, hiInclusive).clear();
+				expected.subSet(lo, loInclusive, hi, hiInclusive).clear();
+				break;
+			case 1:
+				tree.headSet(hi, hiInclusive).clear();
+				expected.headSet(hi, hiInclusive).clear();
+				break;
+			default:
+				tree.tailSet(lo, loInclusive).clear();
+				expected.tailSet(lo, loInclusive).clear();
+				break;
+			}
+			assertEquals(new ArrayList<>(expected), tree.getInOrder());
+			assertEquals(expected.size(), tree.size());
+			checkBalanced(tree.root);
+			assertEquals(expected.subSet(lo, loInclusive, hi, hiInclusive).size(),
+					tree.subSet(lo, loInclusive, hi, hiInclusive).size());
+		}
+	}
+
+	@Test
+	public void testIteratorFailsFast() {
+		AVLTree<Integer> tree = treeOf(Arrays.asList(3, 1, 2));
+		Iterator<Integer> iter = tree.iterator();
+		assertEquals(1, (int) iter.next());
+		tree.add(4);
+		try {
+			iter.next();
+			fail();
+		} catch (ConcurrentModificationException e) {
+			// the tree changed under the iterator
+		}
+	}
+
+	private AVLTree<Integer> treeOf(Iterable<Integer> items) {
+		AVLTree<Integer> tree = new AVLTree<>();
+		for (Integer item : items) {
+			tree.add(item);
+		}
+		return tree;
+	}
+
+	/**
+	 * Checks the stored heights and sizes and the AVL balance of every node below node
+	 * @return the height of node
+	 */
+	private int checkBalanced(AVLTree.AVLNode<Integer> node) {
+		if (node == null) {
+			return -1;
+		}
+		int left = checkBalanced(node.left);
+		int right = checkBalanced(node.right);
+		assertTrue(Math.abs(left - right) <= 1);
+		assertEquals(Math.max(left, right) + 1, node.height);
+		int size = 1 + (node.left == null ? 0 : node.left.size) + (node.right == null ? 0 : node.right.size);
+		assertEquals(size, node.size);
+		return node.height;
+	}
+
+}
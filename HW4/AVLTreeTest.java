@@ -1,7 +1,10 @@
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -350,4 +353,80 @@ public class AVLTreeTest {
 		
 	}
 
+	@Test
+	public void testRandomAddRemoveStaysBalanced() {
+		BSTree<Integer> tree = newIntTree();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(3);
+		for (int i = 0; i < 20000; ++i) {
+			int value = random.nextInt(2000);
+			if (random.nextInt(3) > 0) {
+				assertEquals(expected.add(value), tree.add(value));
+			} else {
+				assertEquals(expected.remove(value), tree.remove(value));
+			}
+			if (i % 500 == 0) {
+				checkBalanced(tree);
+			}
+		}
+		assertEquals(expected.size(), tree.size());
+		assertEquals(new ArrayList<>(expected), inOrder(tree));
+		checkBalanced(tree);
+
+		for (Integer value : new ArrayList<>(expected)) {
+			assertTrue(tree.remove(value));
+			if (value % 50 == 0) {
+				checkBalanced(tree);
+			}
+		}
+		assertTrue(tree.isEmpty());
+
+		for (int i = 0; i < 100000; ++i) {
+			tree.add(i);
+		}
+		assertTrue(checkBalanced(tree) <= 24);
+	}
+
+	/**
+	 * Subclasses testing another tree return one of theirs
+	 * @return a new empty tree of the kind under test
+	 */
+	protected BSTree<Integer> newIntTree() {
+		return new AVLTree<Integer>();
+	}
+
+	/**
+	 * Checks the balance information every node of tree keeps
+	 * @param tree a tree from newIntTree
+	 * @return the height of the tree
+	 */
+	protected int checkBalanced(BSTree<Integer> tree) {
+		return checkBalanced(((AVLTree<Integer>) tree).root);
+	}
+
+	private List<Integer> inOrder(BSTree<Integer> tree) {
+		List<Integer> result = new ArrayList<>();
+		for (Integer item : tree) {
+			result.add(item);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks the stored heights and sizes and the AVL balance of every node below node
+	 * @return the height of node
+	 */
+	private int checkBalanced(AVLTree.AVLNode<Integer> node) {
+		if (node == null) {
+			return -1;
+		}
+		int left = checkBalanced(node.left);
+		int right = checkBalanced(node.right);
+		assertTrue(Math.abs(left - right) <= 1);
+		assertEquals(Math.max(left, right) + 1, node.height);
+		int size = 1 + (node.left == null ? 0 : node.left.size) + (node.right == null ? 0 : node.right.size);
+		assertEquals(size, node.size);
+		return node.height;
+	}
+
 }
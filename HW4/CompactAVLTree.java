@@ -0,0 +1,535 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An AVL tree that keeps its nodes in parallel arrays instead of node
+ * objects.  A node is an int index: its children are left[i] and right[i],
+ * its item items[i], and its balance factor (left height minus right height,
+ * always -1, 0 or 1 between operations) the byte balance[i].  Rotations work
+ * the new factors out from the old ones, so fixing up the tree never has to
+ * read the children's heights.
+ *
+ * A node costs 13 bytes of array (two ints, a compressed reference and a
+ * byte) against 32 for an AVLTree node object plus the reference to it, and
+ * the garbage collector has a handful of arrays to trace instead of one
+ * object per item.  The arrays double when full, so with their spare room a
+ * node costs between 13 and 26 bytes.  Slots freed by remove are chained
+ * into a free list and reused by add.
+ *
+ * add and remove share one scratch array for their search path, so like
+ * AVLTree the tree is not reentrant and not safe for more than one thread.
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class CompactAVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iterable<E> {
+    /** deeper than any AVL tree of up to 2^31 nodes can get (about 1.44 log2 n) */
+    private static final int MAX_HEIGHT = 64;
+
+    /** the index that stands for no node; slot 0 of every array is unused */
+    static final int NIL = 0;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    int root;
+    int nodeCount;
+    /** children of each node, NIL for none; a free slot's left links the free list */
+    int[] left;
+    int[] right;
+    /** height of left minus height of right */
+    byte[] balance;
+    private Object[] items;
+    /** slots 1..used have been handed out at some point */
+    private int used;
+    /** first slot of the free list, NIL if it is empty */
+    private int free;
+    /** bumped by every add and remove that changes the tree, for the iterator */
+    private int modCount;
+    /** scratch space for the search path of add and remove, reused by every call */
+    private final int[] path;
+
+    /**
+     * Constructs a new empty tree
+     */
+    public CompactAVLTree() {
+        path = new int[MAX_HEIGHT];
+        clear();
+    }
+
+    /**
+     * Adds an item to the tree
+     * @param item the item to add
+     * @return Whether or not the item was added to the tree
+     */
+    public boolean add(E item) {
+        if (item == null) {
+            return false;
+        }
+
+        if (root == NIL) {
+            root = newNode(item);
+            nodeCount++;
+            modCount++;
+            return true;
+        }
+
+        int depth = 0;
+        int node = root;
+        int child;
+
+        while (true) {
+            int comp = item.compareTo(itemAt(node));
+
+            if (comp == 0) {
+                return false;
+            }
+
+            path[depth++] = node;
+            if (comp < 0) { //item < node's item
+                if (left[node] == NIL) {
+                    child = newNode(item);
+                    left[node] = child;
+                    break;
+                }
+                node = left[node];
+            } else { //item > node's item
+                if (right[node] == NIL) {
+                    child = newNode(item);
+                    right[node] = child;
+                    break;
+                }
+                node = right[node];
+            }
+        }
+        nodeCount++;
+        modCount++;
+
+        // child's subtree just got taller; walk up until some subtree doesn't
+        for (int i = depth - 1; i >= 0; i--) {
+            node = path[i];
+            balance[node] += left[node] == child ? 1 : -1;
+
+            if (balance[node] == 0) {
+                break;
+            }
+            if (balance[node] == 2 || balance[node] == -2) {
+                // a rotation after an insert always brings the height back
+                replaceChild(i == 0 ? NIL : path[i - 1], node, rebalance(node));
+                break;
+            }
+            child = node;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the specified item from the tree
+     * @param dta the item to be removed from the tree
+     * @return Whether or not the item was removed from the tree
+     */
+    public boolean remove(E dta) {
+        if (dta == null || root == NIL) {
+            return false;
+        }
+
+        int depth = 0;
+        int node = root;
+
+        while (node != NIL) {
+            int comp = dta.compareTo(itemAt(node));
+
+            if (comp == 0) {
+                break;
+            }
+            path[depth++] = node;
+            node = comp < 0 ? left[node] : right[node];
+        }
+
+        if (node == NIL) {
+            return false;
+        }
+
+        if (left[node] != NIL && right[node] != NIL) {
+            // take the successor's item and remove the successor instead
+            path[depth++] = node;
+            int succ = right[node];
+
+            while (left[succ] != NIL) {
+                path[depth++] = succ;
+                succ = left[succ];
+            }
+            items[node] = items[succ];
+            node = succ;
+        }
+        nodeCount--;
+        modCount++;
+
+        int child = left[node] != NIL ? left[node] : right[node];
+        freeNode(node);
+
+        if (depth == 0) {
+            root = child;
+            return true;
+        }
+
+        // the side the removed node hung from just got shorter; walk up until some subtree doesn't
+        int parent = path[depth - 1];
+        boolean shrankLeft = left[parent] == node;
+        if (shrankLeft) {
+            left[parent] = child;
+        } else {
+            right[parent] = child;
+        }
+
+        for (int i = depth - 1; i >= 0; i--) {
+            int subtree = path[i];
+            balance[subtree] += shrankLeft ? -1 : 1;
+
+            if (balance[subtree] == 1 || balance[subtree] == -1) {
+                break;
+            }
+            if (balance[subtree] == 2 || balance[subtree] == -2) {
+                int above = i == 0 ? NIL : path[i - 1];
+                int balanced = rebalance(subtree);
+                replaceChild(above, subtree, balanced);
+                if (balance[balanced] != 0) {
+                    // a single rotation around an evenly balanced child keeps the height
+                    break;
+                }
+                subtree = balanced;
+            }
+            if (i > 0) {
+                shrankLeft = left[path[i - 1]] == subtree;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes a slot off the free list, or a new one, growing the arrays if they are full
+     * @param item the item the node holds
+     * @return the new leaf
+     */
+    private int newNode(E item) {
+        int node = free;
+
+        if (node != NIL) {
+            free = left[node];
+            left[node] = NIL;
+        } else {
+            if (used + 1 == items.length) {
+                grow();
+            }
+            node = ++used;
+        }
+        items[node] = item;
+        return node;
+    }
+
+    /**
+     * Puts a node's slot on the free list
+     * @param node a node that has just been unlinked
+     */
+    private void freeNode(int node) {
+        items[node] = null;
+        right[node] = NIL;
+        balance[node] = 0;
+        left[node] = free;
+        free = node;
+    }
+
+    /**
+     * Doubles every array
+     */
+    private void grow() {
+        int capacity = items.length;
+        if (capacity > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("tree is full");
+        }
+        capacity *= 2;
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        balance = Arrays.copyOf(balance, capacity);
+        items = Arrays.copyOf(items, capacity);
+    }
+
+    /**
+     * Points whichever link of parent referred to oldChild at newChild instead
+     * @param parent the parent of oldChild, or NIL if oldChild is the root
+     * @param oldChild the node being replaced
+     * @param newChild the node taking its place
+     */
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NIL) {
+            root = newChild;
+        } else if (left[parent] == oldChild) {
+            left[parent] = newChild;
+        } else {
+            right[parent] = newChild;
+        }
+    }
+
+    /**
+     * Rebalances a node whose balance factor has reached 2 or -2
+     * @param node the node out of balance
+     * @return balanced subtree with new root
+     */
+    private int rebalance(int node) {
+        if (balance[node] > 0) {
+            if (balance[left[node]] < 0) {
+                left[node] = rotateLeft(left[node]);
+            }
+            return rotateRight(node);
+        } else {
+            if (balance[right[node]] > 0) {
+                right[node] = rotateRight(right[node]);
+            }
+            return rotateLeft(node);
+        }
+    }
+
+    /**
+     * Rotates the subtree of the specified node right
+     * @param node root of subtree to be rotated
+     * @return new node of rotated subtree
+     */
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+
+        balance[node] = (byte) (balance[node] - 1 - Math.max(balance[pivot], 0));
+        balance[pivot] = (byte) (balance[pivot] - 1 + Math.min(balance[node], 0));
+        return pivot;
+    }
+
+    /**
+     * Rotates the subtree of the specified node left
+     * @param node root of subtree to be rotated
+     * @return new node of rotated subtree
+     */
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+
+        balance[node] = (byte) (balance[node] + 1 - Math.min(balance[pivot], 0));
+        balance[pivot] = (byte) (balance[pivot] + 1 + Math.max(balance[node], 0));
+        return pivot;
+    }
+
+    /**
+     * The arrays only ever hold E's, so the unchecked cast is safe
+     * @param node a node in the tree
+     * @return the node's item
+     */
+    @SuppressWarnings("unchecked")
+    E itemAt(int node) {
+        return (E) items[node];
+    }
+
+    /**
+     * @return The maximum item in the tree
+     */
+    public E max() {
+        if (root == NIL) {
+            return null;
+        }
+
+        int current = root;
+
+        while (right[current] != NIL) {
+            current = right[current];
+        }
+
+        return itemAt(current);
+    }
+
+    /**
+     * @return the minimum item in the tree
+     */
+    public E min() {
+        if (root == NIL) {
+            return null;
+        }
+
+        int current = root;
+
+        while (left[current] != NIL) {
+            current = left[current];
+        }
+
+        return itemAt(current);
+    }
+
+    /**
+     * @return Whether the tree is empty or not
+     */
+    public boolean isEmpty() {
+        return nodeCount == 0;
+    }
+
+    /**
+     * @return the size of the tree
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * Checks if the tree contains the specified item
+     * @param dta the item to look for in the tree
+     * @return Whether or not the tree contains the item specified
+     */
+    public boolean contains(E dta) {
+        int node = root;
+
+        while (node != NIL) {
+            int comp = dta.compareTo(itemAt(node));
+
+            if (comp == 0) {
+                return true;
+            }
+            node = comp < 0 ? left[node] : right[node];
+        }
+        return false;
+    }
+
+    /**
+     * Clears the tree, handing the arrays back to the collector
+     */
+    public void clear() {
+        root = NIL;
+        nodeCount = 0;
+        left = new int[DEFAULT_CAPACITY];
+        right = new int[DEFAULT_CAPACITY];
+        balance = new byte[DEFAULT_CAPACITY];
+        items = new Object[DEFAULT_CAPACITY];
+        used = 0;
+        free = NIL;
+        modCount++;
+    }
+
+    /**
+     * Walks the tree lazily, keeping only the nodes on the way down to the
+     * next item.  Fails fast if the tree is changed other than through this
+     * iterator.
+     * @return an in order iterator of the tree
+     */
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final int[] stack = new int[MAX_HEIGHT];
+            private int top = pushLeft(root, 0);
+            private final int expectedModCount = modCount;
+
+            private int pushLeft(int node, int top) {
+                for (; node != NIL; node = left[node]) {
+                    stack[top++] = node;
+                }
+                return top;
+            }
+
+            public boolean hasNext() {
+                return top > 0;
+            }
+
+            public E next() {
+                if (expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                int node = stack[--top];
+                top = pushLeft(right[node], top);
+                return itemAt(node);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Remove not supported");
+            }
+        };
+    }
+
+    /**
+     * @return a list of the items in the tree in PreOrder
+     */
+    public ArrayList<E> getPreOrder() {
+        ArrayList<E> result = new ArrayList<>(nodeCount);
+        preOrder(root, result);
+        return result;
+    }
+
+    /**
+     * Helper method for getPreOrder
+     * @param node the root of the subtree from which items are to be put into pre order
+     * @param accum the list which items will be added to
+     */
+    private void preOrder(int node, ArrayList<E> accum) {
+        if (node != NIL) {
+            accum.add(itemAt(node));
+            preOrder(left[node], accum);
+            preOrder(right[node], accum);
+        }
+    }
+
+    /**
+     * @return a list of the items in the tree in PostOrder
+     */
+    public ArrayList<E> getPostOrder() {
+        ArrayList<E> result = new ArrayList<>(nodeCount);
+        postOrder(root, result);
+        return result;
+    }
+
+    /**
+     * Helper method for getPostOrder
+     * @param node the root of the subtree from which items are to be put into post order
+     * @param accum the list which items will be added to
+     */
+    private void postOrder(int node, ArrayList<E> accum) {
+        if (node != NIL) {
+            postOrder(left[node], accum);
+            postOrder(right[node], accum);
+            accum.add(itemAt(node));
+        }
+    }
+
+    /**
+     * @return a list of the items in the tree in order from minimum to maximum
+     */
+    public ArrayList<E> getInOrder() {
+        ArrayList<E> result = new ArrayList<>(nodeCount);
+        for (E item : this) {
+            result.add(item);
+        }
+        return result;
+    }
+
+    /**
+     * @return a list of the items in the tree in Level Order
+     */
+    public ArrayList<E> getLevelOrder() {
+        ArrayList<E> result = new ArrayList<>(nodeCount);
+        int[] queue = new int[nodeCount];
+        int tail = 0;
+
+        if (root != NIL) {
+            queue[tail++] = root;
+        }
+        for (int head = 0; head < tail; head++) {
+            int node = queue[head];
+            result.add(itemAt(node));
+            if (left[node] != NIL) {
+                queue[tail++] = left[node];
+            }
+            if (right[node] != NIL) {
+                queue[tail++] = right[node];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,40 @@
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+
+
+public class CompactAVLTreeTest extends AVLTreeTest {
+
+	@Before
+	@Override
+	public void setup() {
+		tree = new CompactAVLTree<String>();
+	}
+
+	@Override
+	protected BSTree<Integer> newIntTree() {
+		return new CompactAVLTree<Integer>();
+	}
+
+	@Override
+	protected int checkBalanced(BSTree<Integer> tree) {
+		CompactAVLTree<Integer> compact = (CompactAVLTree<Integer>) tree;
+		return checkFactors(compact, compact.root);
+	}
+
+	/**
+	 * Checks the stored balance factor of every node below node
+	 * @return the height of node
+	 */
+	private int checkFactors(CompactAVLTree<Integer> tree, int node) {
+		if (node == CompactAVLTree.NIL) {
+			return -1;
+		}
+		int left = checkFactors(tree, tree.left[node]);
+		int right = checkFactors(tree, tree.right[node]);
+		assertEquals(left - right, tree.balance[node]);
+		assertTrue(Math.abs(tree.balance[node]) <= 1);
+		return Math.max(left, right) + 1;
+	}
+
+}
@@ -0,0 +1,1189 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe AVL tree after Bronson, Casper, Chafi and Olukotun's
+ * "A Practical Concurrent Binary Search Tree".
+ *
+ * Readers never lock.  Every node has a version number that a rotation bumps
+ * when it moves the node down (shrinking the range of items below it).  A
+ * search reads a child, then checks that its parent's version hasn't moved
+ * since it arrived there, so it knows the child is still on the right path;
+ * if it has moved the search backs up a level and tries again.
+ *
+ * Writers lock only the nodes they change: add locks the node it hangs the
+ * new leaf from, and a rotation locks the parent, the node and the child
+ * being rotated, always top down.  Removing an item whose node has two
+ * children just clears its present flag, leaving a routing node that is
+ * unlinked later once it has one child or none.  Balance is relaxed: heights
+ * are hints fixed up after each change, so the tree is strictly AVL balanced
+ * after single threaded use and close to it when writers race.
+ *
+ * size(), the traversals and iterators are exact when no other thread is
+ * changing the tree, and a best-effort snapshot otherwise.
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class ConcurrentAVLTree<E extends Comparable<? super E>> implements BSTree<E>, Iterable<E> {
+    /** version of a node that has been unlinked from the tree */
+    private static final long UNLINKED = 1L;
+    /** set in a node's version while a rotation is moving it down */
+    private static final long SHRINKING = 2L;
+    /** added to a node's version each time a rotation finishes moving it down */
+    private static final long SHRINK_COUNT = 4L;
+
+    /** how many times to reread a shrinking node's version before yielding */
+    private static final int SPIN_COUNT = 100;
+
+    /** results of the attempt methods */
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int RETRY = 2;
+
+    /** results of nodeCondition that aren't a new height */
+    private static final int UNLINK_REQUIRED = -1;
+    private static final int REBALANCE_REQUIRED = -2;
+    private static final int NOTHING_REQUIRED = -3;
+
+    /** never removed, its right child is the root of the tree */
+    final Node<E> rootHolder;
+    private final LongAdder count;
+    /** returned by attemptNavigate when the search has to start over */
+    private final Node<E> retryNode;
+
+    /**
+     * Constructs a new empty tree
+     */
+    public ConcurrentAVLTree() {
+        rootHolder = new Node<>(null, 1, null);
+        count = new LongAdder();
+        retryNode = new Node<>(null, 0, null);
+    }
+
+    private static boolean isShrinkingOrUnlinked(long version) {
+        return (version & (SHRINKING | UNLINKED)) != 0L;
+    }
+
+    private static boolean isUnlinked(long version) {
+        return version == UNLINKED;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Waits without locking for a rotation that is moving node down to finish
+     * @param node the node being rotated
+     * @param version the version of node that showed it shrinking
+     */
+    private static void waitUntilShrinkCompleted(Node<?> node, long version) {
+        if ((version & SHRINKING) == 0L) {
+            return;
+        }
+
+        for (int tries = 0; tries < SPIN_COUNT; ++tries) {
+            if (node.version != version) {
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        while (node.version == version) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Checks if the tree contains the specified item
+     * @param dta the item to look for in the tree
+     * @return Whether or not the tree contains the item specified
+     */
+    public boolean contains(E dta) {
+        if (dta == null) {
+            return false;
+        }
+
+        while (true) {
+            Node<E> right = rootHolder.right;
+
+            if (right == null) {
+                return false;
+            }
+
+            int comp = dta.compareTo(right.key);
+            if (comp == 0) {
+                return right.present;
+            }
+
+            long version = right.version;
+            if (isShrinkingOrUnlinked(version)) {
+                waitUntilShrinkCompleted(right, version);
+            } else if (right == rootHolder.right) {
+                int result = attemptGet(dta, right, comp, version);
+                if (result != RETRY) {
+                    return result == TRUE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches below node, which has already been compared with dta
+     * @param dta the item to look for
+     * @param node the node the search has reached
+     * @param dirToChild the result of comparing dta with node's item
+     * @param nodeVersion node's version when the search reached it
+     * @return TRUE or FALSE, or RETRY if node changed and the search must back up
+     */
+    private int attemptGet(E dta, Node<E> node, int dirToChild, long nodeVersion) {
+        while (true) {
+            Node<E> child = node.child(dirToChild);
+
+            if (child == null) {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+                return FALSE;
+            }
+
+            int childComp = dta.compareTo(child.key);
+            if (childComp == 0) {
+                // a node is cleared before it is unlinked, so this is right either way
+                return child.present ? TRUE : FALSE;
+            }
+
+            long childVersion = child.version;
+            if (isShrinkingOrUnlinked(childVersion)) {
+                waitUntilShrinkCompleted(child, childVersion);
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+            } else if (child != node.child(dirToChild)) {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+            } else {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+
+                int result = attemptGet(dta, child, childComp, childVersion);
+                if (result != RETRY) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Kept strictly less than value, like AVLTree.floor
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E floor(E value) {
+        return value == null ? null : navigate(value, true, false);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the greatest item strictly less than value, null if there is none
+     */
+    public E lower(E value) {
+        return value == null ? null : navigate(value, true, false);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the least item greater than or equal to value, null if there is none
+     */
+    public E ceiling(E value) {
+        return value == null ? null : navigate(value, false, true);
+    }
+
+    /**
+     * @param value the item to look around
+     * @return the least item strictly greater than value, null if there is none
+     */
+    public E higher(E value) {
+        return value == null ? null : navigate(value, false, false);
+    }
+
+    /**
+     * @return The maximum item in the tree
+     */
+    public E max() {
+        return navigate(null, true, false);
+    }
+
+    /**
+     * @return the minimum item in the tree
+     */
+    public E min() {
+        return navigate(null, false, false);
+    }
+
+    /**
+     * Finds the nearest item on one side of value.  If the nearest node turns
+     * out to be a routing node, or was removed after the search found it, the
+     * search goes again from that node's item.
+     * @param value the item to look around, null to find the min or max
+     * @param below whether to look below value rather than above it
+     * @param inclusive whether an item equal to value counts
+     * @return the nearest item, null if there is none
+     */
+    private E navigate(E value, boolean below, boolean inclusive) {
+        while (true) {
+            Node<E> right = rootHolder.right;
+
+            if (right == null) {
+                return null;
+            }
+
+            long version = right.version;
+            if (isShrinkingOrUnlinked(version)) {
+                waitUntilShrinkCompleted(right, version);
+                continue;
+            }
+            if (right != rootHolder.right) {
+                continue;
+            }
+
+            Node<E> best = attemptNavigate(value, below, inclusive, right, version, null);
+            if (best == retryNode) {
+                continue;
+            }
+            if (best == null) {
+                return null;
+            }
+            if (best.present) {
+                return best.key;
+            }
+            value = best.key;
+            inclusive = false;
+        }
+    }
+
+    /**
+     * Helper method for navigate, searches below node
+     * @param value the item to look around, null to find the min or max
+     * @param below whether to look below value rather than above it
+     * @param inclusive whether an item equal to value counts
+     * @param node the node the search has reached
+     * @param nodeVersion node's version when the search reached it
+     * @param best the nearest node found above this one
+     * @return the nearest node, null if there is none, or retryNode if node
+     *         changed and the search must back up
+     */
+    private Node<E> attemptNavigate(E value, boolean below, boolean inclusive, Node<E> node,
+            long nodeVersion, Node<E> best) {
+        int comp = value == null ? (below ? 1 : -1) : value.compareTo(node.key);
+
+        if (comp == 0 && inclusive && node.present) {
+            return node;
+        }
+        if (below ? comp > 0 : comp < 0) {
+            best = node;
+        }
+        int dirToChild = below ? (comp > 0 ? 1 : -1) : (comp < 0 ? -1 : 1);
+
+        while (true) {
+            Node<E> child = node.child(dirToChild);
+
+            if (node.version != nodeVersion) {
+                return retryNode;
+            }
+            if (child == null) {
+                return best;
+            }
+
+            long childVersion = child.version;
+            if (isShrinkingOrUnlinked(childVersion)) {
+                waitUntilShrinkCompleted(child, childVersion);
+                if (node.version != nodeVersion) {
+                    return retryNode;
+                }
+            } else if (child != node.child(dirToChild)) {
+                if (node.version != nodeVersion) {
+                    return retryNode;
+                }
+            } else {
+                if (node.version != nodeVersion) {
+                    return retryNode;
+                }
+
+                Node<E> result = attemptNavigate(value, below, inclusive, child, childVersion, best);
+                if (result != retryNode) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds an item to the tree
+     * @param item the item to add
+     * @return Whether or not the item was added to the tree
+     */
+    public boolean add(E item) {
+        return item != null && update(item, true);
+    }
+
+    /**
+     * Removes the specified item from the tree
+     * @param dta the item to be removed from the tree
+     * @return Whether or not the item was removed from the tree
+     */
+    public boolean remove(E dta) {
+        return dta != null && update(dta, false);
+    }
+
+    /**
+     * @param item the item to add or remove
+     * @param adding whether to add the item rather than remove it
+     * @return whether the tree changed
+     */
+    private boolean update(E item, boolean adding) {
+        while (true) {
+            Node<E> right = rootHolder.right;
+
+            if (right == null) {
+                if (!adding) {
+                    return false;
+                }
+                synchronized (rootHolder) {
+                    if (rootHolder.right == null) {
+                        rootHolder.right = new Node<>(item, 1, rootHolder);
+                        count.increment();
+                        return true;
+                    }
+                }
+                continue;
+            }
+
+            long version = right.version;
+            if (isShrinkingOrUnlinked(version)) {
+                waitUntilShrinkCompleted(right, version);
+            } else if (right == rootHolder.right) {
+                int result = attemptUpdate(item, adding, rootHolder, right, version);
+                if (result != RETRY) {
+                    return result == TRUE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches below node for the place to add or remove item
+     * @param item the item to add or remove
+     * @param adding whether to add the item rather than remove it
+     * @param parent node's parent
+     * @param node the node the search has reached
+     * @param nodeVersion node's version when the search reached it
+     * @return TRUE or FALSE, or RETRY if node changed and the search must back up
+     */
+    private int attemptUpdate(E item, boolean adding, Node<E> parent, Node<E> node, long nodeVersion) {
+        int comp = item.compareTo(node.key);
+
+        if (comp == 0) {
+            return attemptNodeUpdate(adding, parent, node);
+        }
+
+        while (true) {
+            Node<E> child = node.child(comp);
+
+            if (node.version != nodeVersion) {
+                return RETRY;
+            }
+
+            if (child == null) {
+                if (!adding) {
+                    return FALSE;
+                }
+
+                Node<E> damaged;
+                synchronized (node) {
+                    if (node.version != nodeVersion) {
+                        return RETRY;
+                    }
+                    if (node.child(comp) != null) {
+                        // someone else hung a node here first, look again
+                        continue;
+                    }
+                    node.setChild(comp, new Node<>(item, 1, node));
+                    count.increment();
+                    damaged = fixHeight(node);
+                }
+                fixHeightAndRebalance(damaged);
+                return TRUE;
+            }
+
+            long childVersion = child.version;
+            if (isShrinkingOrUnlinked(childVersion)) {
+                waitUntilShrinkCompleted(child, childVersion);
+            } else if (child == node.child(comp)) {
+                if (node.version != nodeVersion) {
+                    return RETRY;
+                }
+
+                int result = attemptUpdate(item, adding, node, child, childVersion);
+                if (result != RETRY) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or removes the item held by node
+     * @param adding whether to add the item rather than remove it
+     * @param parent node's parent
+     * @param node the node holding the item
+     * @return TRUE or FALSE, or RETRY if node changed and the search must back up
+     */
+    private int attemptNodeUpdate(boolean adding, Node<E> parent, Node<E> node) {
+        if (adding) {
+            synchronized (node) {
+                if (isUnlinked(node.version)) {
+                    return RETRY;
+                }
+                if (node.present) {
+                    return FALSE;
+                }
+                node.present = true;
+                count.increment();
+            }
+            return TRUE;
+        }
+
+        if (!node.present) {
+            return isUnlinked(node.version) ? RETRY : FALSE;
+        }
+
+        if (node.left == null || node.right == null) {
+            // the node can come out of the tree, which needs its parent locked too
+            Node<E> damaged;
+            synchronized (parent) {
+                if (isUnlinked(parent.version) || node.parent != parent) {
+                    return RETRY;
+                }
+                synchronized (node) {
+                    if (!node.present) {
+                        return FALSE;
+                    }
+                    if (!attemptUnlink(parent, node)) {
+                        return RETRY;
+                    }
+                    count.decrement();
+                }
+                damaged = fixHeight(parent);
+            }
+            fixHeightAndRebalance(damaged);
+            return TRUE;
+        }
+
+        synchronized (node) {
+            if (isUnlinked(node.version)) {
+                return RETRY;
+            }
+            if (!node.present) {
+                return FALSE;
+            }
+            if (node.left == null || node.right == null) {
+                // lost a child since we looked, go round again to unlink it
+                return RETRY;
+            }
+            node.present = false;
+            count.decrement();
+        }
+        return TRUE;
+    }
+
+    /**
+     * Splices node out of the tree.  Caller holds the locks of parent and node.
+     * @param parent node's parent
+     * @param node a node with at most one child
+     * @return false if node is no longer parent's child or now has two children
+     */
+    private boolean attemptUnlink(Node<E> parent, Node<E> node) {
+        Node<E> parentLeft = parent.left;
+        Node<E> parentRight = parent.right;
+
+        if (parentLeft != node && parentRight != node) {
+            return false;
+        }
+
+        Node<E> left = node.left;
+        Node<E> right = node.right;
+        if (left != null && right != null) {
+            return false;
+        }
+
+        Node<E> splice = left != null ? left : right;
+        // readers that still reach node must see its item gone
+        node.present = false;
+        if (parentLeft == node) {
+            parent.left = splice;
+        } else {
+            parent.right = splice;
+        }
+        if (splice != null) {
+            splice.parent = parent;
+        }
+        node.version = UNLINKED;
+        return true;
+    }
+
+    /**
+     * @param node the node to check
+     * @return UNLINK_REQUIRED, REBALANCE_REQUIRED, NOTHING_REQUIRED, or the
+     *         height node should have
+     */
+    private int nodeCondition(Node<E> node) {
+        Node<E> left = node.left;
+        Node<E> right = node.right;
+
+        if ((left == null || right == null) && !node.present) {
+            return UNLINK_REQUIRED;
+        }
+
+        int height = node.height;
+        int heightLeft = height(left);
+        int heightRight = height(right);
+        int newHeight = 1 + Math.max(heightLeft, heightRight);
+        int balance = heightLeft - heightRight;
+
+        if (balance < -1 || balance > 1) {
+            return REBALANCE_REQUIRED;
+        }
+        return height != newHeight ? newHeight : NOTHING_REQUIRED;
+    }
+
+    /**
+     * Fixes node's height.  Caller holds node's lock.
+     * @param node the node to fix
+     * @return the node that needs looking at next, null if none
+     */
+    private Node<E> fixHeight(Node<E> node) {
+        int condition = nodeCondition(node);
+
+        switch (condition) {
+            case REBALANCE_REQUIRED:
+            case UNLINK_REQUIRED:
+                return node;
+            case NOTHING_REQUIRED:
+                return null;
+            default:
+                node.height = condition;
+                return node.parent;
+        }
+    }
+
+    /**
+     * Walks up from node fixing heights, rotating and unlinking routing nodes
+     * until nothing more needs doing.
+     *
+     * A rotation can leave a node below it needing work while also changing
+     * the height of the subtree it rotated, so the parent of every rotation
+     * is kept and looked at again once the work below it is done.
+     * @param node the first node that may need fixing
+     */
+    private void fixHeightAndRebalance(Node<E> node) {
+        ArrayDeque<Node<E>> pending = null;
+
+        while (true) {
+            if (node == null || node.parent == null || isUnlinked(node.version)) {
+                if (pending == null || pending.isEmpty()) {
+                    return;
+                }
+                node = pending.pop();
+                continue;
+            }
+
+            int condition = nodeCondition(node);
+
+            if (condition == NOTHING_REQUIRED) {
+                node = null;
+            } else if (condition != UNLINK_REQUIRED && condition != REBALANCE_REQUIRED) {
+                synchronized (node) {
+                    node = fixHeight(node);
+                }
+            } else {
+                Node<E> parent = node.parent;
+                synchronized (parent) {
+                    if (!isUnlinked(parent.version) && node.parent == parent) {
+                        synchronized (node) {
+                            // clear() can cut node off from a parent that stays linked
+                            node = isUnlinked(node.version) ? null : rebalance(parent, node);
+                        }
+                        if (node != null) {
+                            if (pending == null) {
+                                pending = new ArrayDeque<>();
+                            }
+                            pending.push(parent);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Caller holds the locks of parent and node
+     * @param parent node's parent
+     * @param node the node to rebalance
+     * @return the node that needs looking at next, null if none
+     */
+    private Node<E> rebalance(Node<E> parent, Node<E> node) {
+        Node<E> left = node.left;
+        Node<E> right = node.right;
+
+        if ((left == null || right == null) && !node.present) {
+            if (attemptUnlink(parent, node)) {
+                return fixHeight(parent);
+            }
+            return node;
+        }
+
+        int height = node.height;
+        int heightLeft = height(left);
+        int heightRight = height(right);
+        int newHeight = 1 + Math.max(heightLeft, heightRight);
+        int balance = heightLeft - heightRight;
+
+        if (balance > 1) {
+            return rebalanceToRight(parent, node, left, heightRight);
+        } else if (balance < -1) {
+            return rebalanceToLeft(parent, node, right, heightLeft);
+        } else if (newHeight != height) {
+            node.height = newHeight;
+            return fixHeight(parent);
+        }
+        return null;
+    }
+
+    /**
+     * Rotates a left heavy node right, once or twice.  Caller holds the locks of parent and node.
+     */
+    private Node<E> rebalanceToRight(Node<E> parent, Node<E> node, Node<E> left, int heightRight) {
+        synchronized (left) {
+            int heightLeft = left.height;
+
+            if (heightLeft - heightRight <= 1) {
+                return node;
+            }
+
+            Node<E> leftRight = left.right;
+            int heightLeftLeft = height(left.left);
+            int heightLeftRight = height(leftRight);
+
+            if (heightLeftLeft >= heightLeftRight) {
+                return rotateRight(parent, node, left, heightRight, heightLeftLeft, leftRight, heightLeftRight);
+            }
+
+            synchronized (leftRight) {
+                heightLeftRight = leftRight.height;
+
+                if (heightLeftLeft >= heightLeftRight) {
+                    return rotateRight(parent, node, left, heightRight, heightLeftLeft, leftRight, heightLeftRight);
+                }
+
+                int heightLeftRightLeft = height(leftRight.left);
+                int balance = heightLeftLeft - heightLeftRightLeft;
+                if (balance >= -1 && balance <= 1) {
+                    return rotateRightOverLeft(parent, node, left, heightRight, heightLeftLeft,
+                            leftRight, heightLeftRightLeft);
+                }
+            }
+            // left itself needs fixing first
+            return rebalanceToLeft(node, left, leftRight, heightLeftLeft);
+        }
+    }
+
+    /**
+     * Rotates a right heavy node left, once or twice.  Caller holds the locks of parent and node.
+     */
+    private Node<E> rebalanceToLeft(Node<E> parent, Node<E> node, Node<E> right, int heightLeft) {
+        synchronized (right) {
+            int heightRight = right.height;
+
+            if (heightLeft - heightRight >= -1) {
+                return node;
+            }
+
+            Node<E> rightLeft = right.left;
+            int heightRightLeft = height(rightLeft);
+            int heightRightRight = height(right.right);
+
+            if (heightRightRight >= heightRightLeft) {
+                return rotateLeft(parent, node, heightLeft, right, rightLeft, heightRightLeft, heightRightRight);
+            }
+
+            synchronized (rightLeft) {
+                heightRightLeft = rightLeft.height;
+
+                if (heightRightRight >= heightRightLeft) {
+                    return rotateLeft(parent, node, heightLeft, right, rightLeft, heightRightLeft, heightRightRight);
+                }
+
+                int heightRightLeftRight = height(rightLeft.right);
+                int balance = heightRightRight - heightRightLeftRight;
+                if (balance >= -1 && balance <= 1) {
+                    return rotateLeftOverRight(parent, node, heightLeft, right, rightLeft,
+                            heightRightRight, heightRightLeftRight);
+                }
+            }
+            // right itself needs fixing first
+            return rebalanceToRight(node, right, rightLeft, heightRightRight);
+        }
+    }
+
+    /**
+     * Caller holds the locks of parent, node and left
+     */
+    private Node<E> rotateRight(Node<E> parent, Node<E> node, Node<E> left, int heightRight,
+            int heightLeftLeft, Node<E> leftRight, int heightLeftRight) {
+        long nodeVersion = node.version;
+        Node<E> parentLeft = parent.left;
+
+        node.version = nodeVersion | SHRINKING;
+
+        node.left = leftRight;
+        if (leftRight != null) {
+            leftRight.parent = node;
+        }
+        left.right = node;
+        node.parent = left;
+        if (parentLeft == node) {
+            parent.left = left;
+        } else {
+            parent.right = left;
+        }
+        left.parent = parent;
+
+        int newNodeHeight = 1 + Math.max(heightLeftRight, heightRight);
+        node.height = newNodeHeight;
+        left.height = 1 + Math.max(heightLeftLeft, newNodeHeight);
+
+        node.version = nodeVersion + SHRINK_COUNT;
+
+        int balanceNode = heightLeftRight - heightRight;
+        if (balanceNode < -1 || balanceNode > 1) {
+            return node;
+        }
+        if ((leftRight == null || heightRight == 0) && !node.present) {
+            return node;
+        }
+        int balanceLeft = heightLeftLeft - newNodeHeight;
+        if (balanceLeft < -1 || balanceLeft > 1) {
+            return left;
+        }
+        if (heightLeftLeft == 0 && !left.present) {
+            return left;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * Caller holds the locks of parent, node and right
+     */
+    private Node<E> rotateLeft(Node<E> parent, Node<E> node, int heightLeft, Node<E> right,
+            Node<E> rightLeft, int heightRightLeft, int heightRightRight) {
+        long nodeVersion = node.version;
+        Node<E> parentLeft = parent.left;
+
+        node.version = nodeVersion | SHRINKING;
+
+        node.right = rightLeft;
+        if (rightLeft != null) {
+            rightLeft.parent = node;
+        }
+        right.left = node;
+        node.parent = right;
+        if (parentLeft == node) {
+            parent.left = right;
+        } else {
+            parent.right = right;
+        }
+        right.parent = parent;
+
+        int newNodeHeight = 1 + Math.max(heightLeft, heightRightLeft);
+        node.height = newNodeHeight;
+        right.height = 1 + Math.max(newNodeHeight, heightRightRight);
+
+        node.version = nodeVersion + SHRINK_COUNT;
+
+        int balanceNode = heightRightLeft - heightLeft;
+        if (balanceNode < -1 || balanceNode > 1) {
+            return node;
+        }
+        if ((rightLeft == null || heightLeft == 0) && !node.present) {
+            return node;
+        }
+        int balanceRight = heightRightRight - newNodeHeight;
+        if (balanceRight < -1 || balanceRight > 1) {
+            return right;
+        }
+        if (heightRightRight == 0 && !right.present) {
+            return right;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * Caller holds the locks of parent, node, left and leftRight
+     */
+    private Node<E> rotateRightOverLeft(Node<E> parent, Node<E> node, Node<E> left, int heightRight,
+            int heightLeftLeft, Node<E> leftRight, int heightLeftRightLeft) {
+        long nodeVersion = node.version;
+        long leftVersion = left.version;
+        Node<E> parentLeft = parent.left;
+        Node<E> leftRightLeft = leftRight.left;
+        Node<E> leftRightRight = leftRight.right;
+        int heightLeftRightRight = height(leftRightRight);
+
+        node.version = nodeVersion | SHRINKING;
+        left.version = leftVersion | SHRINKING;
+
+        node.left = leftRightRight;
+        if (leftRightRight != null) {
+            leftRightRight.parent = node;
+        }
+        left.right = leftRightLeft;
+        if (leftRightLeft != null) {
+            leftRightLeft.parent = left;
+        }
+        leftRight.left = left;
+        left.parent = leftRight;
+        leftRight.right = node;
+        node.parent = leftRight;
+        if (parentLeft == node) {
+            parent.left = leftRight;
+        } else {
+            parent.right = leftRight;
+        }
+        leftRight.parent = parent;
+
+        int newNodeHeight = 1 + Math.max(heightLeftRightRight, heightRight);
+        node.height = newNodeHeight;
+        int newLeftHeight = 1 + Math.max(heightLeftLeft, heightLeftRightLeft);
+        left.height = newLeftHeight;
+        leftRight.height = 1 + Math.max(newLeftHeight, newNodeHeight);
+
+        node.version = nodeVersion + SHRINK_COUNT;
+        left.version = leftVersion + SHRINK_COUNT;
+
+        int balanceNode = heightLeftRightRight - heightRight;
+        if (balanceNode < -1 || balanceNode > 1) {
+            return node;
+        }
+        if ((leftRightRight == null || heightRight == 0) && !node.present) {
+            return node;
+        }
+        if ((heightLeftLeft == 0 || heightLeftRightLeft == 0) && !left.present) {
+            return left;
+        }
+        int balanceLeftRight = newLeftHeight - newNodeHeight;
+        if (balanceLeftRight < -1 || balanceLeftRight > 1) {
+            return leftRight;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * Caller holds the locks of parent, node, right and rightLeft
+     */
+    private Node<E> rotateLeftOverRight(Node<E> parent, Node<E> node, int heightLeft, Node<E> right,
+            Node<E> rightLeft, int heightRightRight, int heightRightLeftRight) {
+        long nodeVersion = node.version;
+        long rightVersion = right.version;
+        Node<E> parentLeft = parent.left;
+        Node<E> rightLeftLeft = rightLeft.left;
+        Node<E> rightLeftRight = rightLeft.right;
+        int heightRightLeftLeft = height(rightLeftLeft);
+
+        node.version = nodeVersion | SHRINKING;
+        right.version = rightVersion | SHRINKING;
+
+        node.right = rightLeftLeft;
+        if (rightLeftLeft != null) {
+            rightLeftLeft.parent = node;
+        }
+        right.left = rightLeftRight;
+        if (rightLeftRight != null) {
+            rightLeftRight.parent = right;
+        }
+        rightLeft.right = right;
+        right.parent = rightLeft;
+        rightLeft.left = node;
+        node.parent = rightLeft;
+        if (parentLeft == node) {
+            parent.left = rightLeft;
+        } else {
+            parent.right = rightLeft;
+        }
+        rightLeft.parent = parent;
+
+        int newNodeHeight = 1 + Math.max(heightLeft, heightRightLeftLeft);
+        node.height = newNodeHeight;
+        int newRightHeight = 1 + Math.max(heightRightLeftRight, heightRightRight);
+        right.height = newRightHeight;
+        rightLeft.height = 1 + Math.max(newNodeHeight, newRightHeight);
+
+        node.version = nodeVersion + SHRINK_COUNT;
+        right.version = rightVersion + SHRINK_COUNT;
+
+        int balanceNode = heightRightLeftLeft - heightLeft;
+        if (balanceNode < -1 || balanceNode > 1) {
+            return node;
+        }
+        if ((rightLeftLeft == null || heightLeft == 0) && !node.present) {
+            return node;
+        }
+        if ((heightRightRight == 0 || heightRightLeftRight == 0) && !right.present) {
+            return right;
+        }
+        int balanceRightLeft = newRightHeight - newNodeHeight;
+        if (balanceRightLeft < -1 || balanceRightLeft > 1) {
+            return rightLeft;
+        }
+        return fixHeight(parent);
+    }
+
+    /**
+     * @return the size of the tree
+     */
+    public int size() {
+        return count.intValue();
+    }
+
+    /**
+     * @return Whether the tree is empty or not
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Clears the tree.  Writers running at the same time may or may not have
+     * their changes kept, but size() stays in step with what was kept.
+     *
+     * Every change to a node happens under its lock after checking the node
+     * is still linked, and changes the count under that same lock.  So clear
+     * walks the old tree top down, marking each node unlinked under its lock
+     * and taking its item off the count: writers that hadn't got there yet
+     * retry in the new tree, and writers that had are already counted and
+     * are taken off again.  This makes clear O(n).
+     */
+    public void clear() {
+        ArrayDeque<Node<E>> detached = new ArrayDeque<>();
+
+        synchronized (rootHolder) {
+            Node<E> oldRoot = rootHolder.right;
+            if (oldRoot == null) {
+                return;
+            }
+            rootHolder.right = null;
+            // under rootHolder's lock too, so no rotation can put it back
+            detachNode(oldRoot, detached);
+        }
+        while (!detached.isEmpty()) {
+            detachNode(detached.pop(), detached);
+        }
+    }
+
+    /**
+     * Marks a node of a cleared tree unlinked and takes its item off the count
+     * @param node a node whose parent has already been detached
+     * @param detached where node's children are put to be detached next
+     */
+    private void detachNode(Node<E> node, ArrayDeque<Node<E>> detached) {
+        synchronized (node) {
+            if (node.present) {
+                // cleared before it is unlinked, as attemptUnlink does, for readers
+                node.present = false;
+                count.decrement();
+            }
+            node.version = UNLINKED;
+            if (node.left != null) {
+                detached.push(node.left);
+            }
+            if (node.right != null) {
+                detached.push(node.right);
+            }
+        }
+    }
+
+    /**
+     * @return an in order iterator of the tree
+     */
+    public Iterator<E> iterator() {
+        final ArrayList<E> inOrder = getInOrder();
+
+        return new Iterator<E>() {
+            int cursor = 0;
+
+            public boolean hasNext() {
+                return cursor < inOrder.size();
+            }
+
+            public E next() {
+                if (!hasNext()) {
+                    throw new IndexOutOfBoundsException();
+                }
+                return inOrder.get(cursor++);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Remove not supported");
+            }
+        };
+    }
+
+    /**
+     * @return a list of the items in the tree in PreOrder, skipping routing nodes
+     */
+    public ArrayList<E> getPreOrder() {
+        ArrayList<E> result = new ArrayList<>(size());
+        ArrayDeque<Node<E>> stack = new ArrayDeque<>();
+        Node<E> root = rootHolder.right;
+
+        if (root != null) {
+            stack.push(root);
+        }
+        while (!stack.isEmpty()) {
+            Node<E> temp = stack.pop();
+            if (temp.present) {
+                result.add(temp.key);
+            }
+            Node<E> right = temp.right;
+            Node<E> left = temp.left;
+            if (right != null) {
+                stack.push(right);
+            }
+            if (left != null) {
+                stack.push(left);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a list of the items in the tree in PostOrder, skipping routing nodes
+     */
+    public ArrayList<E> getPostOrder() {
+        ArrayList<E> result = new ArrayList<>(size());
+        postOrder(rootHolder.right, result);
+        return result;
+    }
+
+    /**
+     * Helper method for getPostOrder
+     * @param node the root of the subtree from which items are to be put into post order
+     * @param accum the list which items will be added to
+     */
+    private void postOrder(Node<E> node, ArrayList<E> accum) {
+        if (node != null) {
+            postOrder(node.left, accum);
+            postOrder(node.right, accum);
+            if (node.present) {
+                accum.add(node.key);
+            }
+        }
+    }
+
+    /**
+     * @return a list of the items in the tree in order from minimum to maximum
+     */
+    public ArrayList<E> getInOrder() {
+        ArrayList<E> result = new ArrayList<>(size());
+        inOrder(rootHolder.right, result);
+        return result;
+    }
+
+    /**
+     * Helper method for getInOrder
+     * @param node the root of the subtree for which the items are to be accumulated
+     * @param accum the list that the items will be added to
+     */
+    private void inOrder(Node<E> node, ArrayList<E> accum) {
+        if (node != null) {
+            inOrder(node.left, accum);
+            if (node.present) {
+                accum.add(node.key);
+            }
+            inOrder(node.right, accum);
+        }
+    }
+
+    /**
+     * @return a list of the items in the tree in Level Order, skipping routing nodes
+     */
+    public ArrayList<E> getLevelOrder() {
+        ArrayList<E> result = new ArrayList<>(size());
+        ArrayDeque<Node<E>> q = new ArrayDeque<>();
+        Node<E> root = rootHolder.right;
+
+        if (root != null) {
+            q.addLast(root);
+        }
+        while (!q.isEmpty()) {
+            Node<E> temp = q.poll();
+            if (temp.present) {
+                result.add(temp.key);
+            }
+            Node<E> left = temp.left;
+            Node<E> right = temp.right;
+            if (left != null) {
+                q.addLast(left);
+            }
+            if (right != null) {
+                q.addLast(right);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A node of the tree.  Links, height and version only change under the
+     * node's lock (or its parent's, for the parent link).
+     * @param <T> Typed data structure
+     */
+    static final class Node<T> {
+        final T key;
+        /** false once removed, or for a routing node kept only to guide searches */
+        volatile boolean present;
+        volatile int height;
+        /** UNLINKED, or a count of finished shrinks plus the SHRINKING bit */
+        volatile long version;
+        volatile Node<T> parent;
+        volatile Node<T> left;
+        volatile Node<T> right;
+
+        Node(T key, int height, Node<T> parent) {
+            this.key = key;
+            this.present = key != null;
+            this.height = height;
+            this.parent = parent;
+        }
+
+        /**
+         * @param dir negative for the left child, positive for the right
+         */
+        Node<T> child(int dir) {
+            return dir < 0 ? left : right;
+        }
+
+        /**
+         * @param dir negative for the left child, positive for the right
+         */
+        void setChild(int dir, Node<T> child) {
+            if (dir < 0) {
+                left = child;
+            } else {
+                right = child;
+            }
+        }
+    }
+}
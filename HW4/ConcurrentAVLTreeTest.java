@@ -0,0 +1,192 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs every AVLTreeTest test against ConcurrentAVLTree, plus tests with
+ * several threads at once
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class ConcurrentAVLTreeTest extends AVLTreeTest {
+
+	@Before
+	@Override
+	public void setup() {
+		tree = new ConcurrentAVLTree<String>();
+	}
+
+	@Override
+	protected BSTree<Integer> newIntTree() {
+		return new ConcurrentAVLTree<Integer>();
+	}
+
+	/**
+	 * Checks heights and AVL balance of a tree no thread is changing.  Heights
+	 * here count a leaf as 1, so one is taken off to match AVLTree.
+	 */
+	@Override
+	protected int checkBalanced(BSTree<Integer> tree) {
+		return checkHeights(((ConcurrentAVLTree<Integer>) tree).rootHolder.right) - 1;
+	}
+
+	/**
+	 * M has two children, so it stays behind as a routing node instead of
+	 * being replaced by its successor
+	 */
+	@Test
+	@Override
+	public void testRemoveRoot() {
+		for (int i = 0; i < noRotateTraversals.length ; ++i) {
+			tree.add(noRotateTraversals[i]);
+		}
+		assertTrue(tree.remove("M"));
+		assertFalse(tree.contains("M"));
+		List<String> list = tree.getLevelOrder();
+		String[] withoutRoot = {"H", "S", "D", "K", "N", "T", "A", "L", "U"};
+
+		for (int i = 0; i < withoutRoot.length; ++i) {
+			assertEquals(withoutRoot[i], list.get(i));
+		}
+		assertTrue(tree.add("M"));
+		assertEquals(noRotateTraversals.length, tree.size());
+	}
+
+	@Test
+	public void testRandomAgainstTreeSet() {
+		ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+		TreeSet<Integer> expected = new TreeSet<>();
+		Random random = new Random(19);
+		for (int i = 0; i < 30000; ++i) {
+			int value = random.nextInt(3000);
+			if (random.nextInt(3) > 0) {
+				assertEquals(expected.add(value), tree.add(value));
+			} else {
+				assertEquals(expected.remove(value), tree.remove(value));
+			}
+		}
+		assertEquals(expected.size(), tree.size());
+		assertEquals(new ArrayList<>(expected), tree.getInOrder());
+		assertEquals(expected.first(), tree.min());
+		assertEquals(expected.last(), tree.max());
+		for (int value = -1; value <= 3001; ++value) {
+			assertEquals(expected.contains(value), tree.contains(value));
+			assertEquals(expected.lower(value), tree.floor(value));
+			assertEquals(expected.ceiling(value), tree.ceiling(value));
+			assertEquals(expected.higher(value), tree.higher(value));
+		}
+		checkBalanced(tree);
+	}
+
+	@Test
+	public void testManyThreads() throws InterruptedException {
+		final ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+		final int perThread = 20000;
+		final boolean[] failed = {false};
+		Thread[] workers = new Thread[8];
+
+		for (int t = 0; t < workers.length; t++) {
+			final int id = t;
+			workers[t] = new Thread() {
+				public void run() {
+					for (int i = 0; i < perThread; i++) {
+						int key = i * workers.length + id;
+						tree.add(key);
+						if (!tree.contains(key)) {
+							failed[0] = true;
+						}
+						if (i % 2 == 1) {
+							tree.remove(key - workers.length);
+						}
+						Integer below = tree.floor(key);
+						if (below != null && below >= key) {
+							failed[0] = true;
+						}
+					}
+				}
+			};
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		assertFalse(failed[0]);
+		assertEquals(workers.length * perThread / 2, tree.size());
+		List<Integer> items = tree.getInOrder();
+		assertEquals(tree.size(), items.size());
+		for (int i = 0; i < items.size(); i++) {
+			assertEquals(workers.length * (i / workers.length * 2 + 1) + i % workers.length,
+					(int) items.get(i));
+		}
+		// heights are only hints while writers race, so just check the tree stayed shallow
+		assertTrue(depth(tree.rootHolder.right) <= 2 * 32 - 2 * Integer.numberOfLeadingZeros(tree.size()));
+	}
+
+	@Test
+	public void testClearWhileWriting() throws InterruptedException {
+		final ConcurrentAVLTree<Integer> tree = new ConcurrentAVLTree<>();
+		final AtomicBoolean done = new AtomicBoolean();
+		Thread[] workers = new Thread[4];
+
+		for (int t = 0; t < workers.length; t++) {
+			final Random random = new Random(t);
+			workers[t] = new Thread() {
+				public void run() {
+					while (!done.get()) {
+						int key = random.nextInt(5000);
+						if (random.nextBoolean()) {
+							tree.add(key);
+						} else {
+							tree.remove(key);
+						}
+					}
+				}
+			};
+			workers[t].start();
+		}
+		for (int i = 0; i < 200; i++) {
+			Thread.sleep(1);
+			tree.clear();
+		}
+		done.set(true);
+		for (Thread worker : workers) {
+			worker.join();
+		}
+
+		// an add or remove caught by a clear must not leave the count off
+		assertEquals(tree.getInOrder().size(), tree.size());
+		for (int key = 0; key < 5000; key++) {
+			tree.remove(key);
+		}
+		assertEquals(0, tree.size());
+		assertTrue(tree.isEmpty());
+		assertEquals(0, tree.getInOrder().size());
+	}
+
+	private int depth(ConcurrentAVLTree.Node<?> node) {
+		if (node == null) {
+			return 0;
+		}
+		return 1 + Math.max(depth(node.left), depth(node.right));
+	}
+
+	private int checkHeights(ConcurrentAVLTree.Node<?> node) {
+		if (node == null) {
+			return 0;
+		}
+		int left = checkHeights(node.left);
+		int right = checkHeights(node.right);
+		assertTrue(Math.abs(left - right) <= 1);
+		assertEquals(Math.max(left, right) + 1, node.height);
+		return node.height;
+	}
+
+}
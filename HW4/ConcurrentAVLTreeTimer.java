@@ -0,0 +1,174 @@
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Times a mix of contains, floor, add and remove from 1, 4 and 16 threads on
+ * an AVLTree behind a read/write lock, on ConcurrentAVLTree and on
+ * ConcurrentSkipListMap.
+ * @author Zack Sparks
+ * @version 1.0
+ */
+public class ConcurrentAVLTreeTimer {
+    public static final int OPS_PER_THREAD = 400000;
+    public static final int KEY_RANGE = 1 << 20;
+    public static final int[] THREAD_COUNTS = {1, 4, 16};
+
+    private static final int LOCKED = 0;
+    private static final int CONCURRENT = 1;
+    private static final int SKIP_LIST = 2;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Timing Test");
+        System.out.println(OPS_PER_THREAD + " operations per thread over " + KEY_RANGE + " keys, "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+
+        for (int threads : THREAD_COUNTS) {
+            System.out.println("\n" + threads + " threads");
+            System.out.println("AVLTree behind ReentrantReadWriteLock: " + time(threads, LOCKED) / 1000000 + " ms");
+            System.out.println("ConcurrentAVLTree: " + time(threads, CONCURRENT) / 1000000 + " ms");
+            System.out.println("ConcurrentSkipListMap: " + time(threads, SKIP_LIST) / 1000000 + " ms");
+        }
+    }
+
+    /**
+     * @param threads how many threads to run at once
+     * @param kind which structure to hammer
+     * @return nanoseconds until every thread finished
+     * @throws InterruptedException if interrupted while waiting
+     */
+    static long time(int threads, final int kind) throws InterruptedException {
+        final AVLTree<Integer> locked = new AVLTree<>();
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final ConcurrentAVLTree<Integer> concurrent = new ConcurrentAVLTree<>();
+        final ConcurrentSkipListMap<Integer, Boolean> skipList = new ConcurrentSkipListMap<>();
+
+        for (int i = 0; i < KEY_RANGE; i += 2) {
+            switch (kind) {
+                case LOCKED:
+                    locked.add(i);
+                    break;
+                case CONCURRENT:
+                    concurrent.add(i);
+                    break;
+                default:
+                    skipList.put(i, Boolean.TRUE);
+            }
+        }
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t + 1;
+            workers[t] = new Thread() {
+                public void run() {
+                    int random = seed * 0x9e3779b9;
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        random ^= random << 13;
+                        random ^= random >>> 17;
+                        random ^= random << 5;
+                        int key = random & (KEY_RANGE - 1);
+
+                        switch (kind) {
+                            case LOCKED:
+                                stepLocked(locked, lock, key, i);
+                                break;
+                            case CONCURRENT:
+                                step(concurrent, key, i);
+                                break;
+                            default:
+                                step(skipList, key, i);
+                        }
+                    }
+                }
+            };
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * One operation: mostly contains, with some floors, removes and adds
+     */
+    static void stepLocked(AVLTree<Integer> tree, ReentrantReadWriteLock lock, int key, int i) {
+        ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+
+        switch (i % 10) {
+            case 0:
+                writeLock.lock();
+                try {
+                    tree.remove(key);
+                } finally {
+                    writeLock.unlock();
+                }
+                break;
+            case 1:
+                writeLock.lock();
+                try {
+                    tree.add(key);
+                } finally {
+                    writeLock.unlock();
+                }
+                break;
+            case 2:
+                readLock.lock();
+                try {
+                    tree.floor(key);
+                } finally {
+                    readLock.unlock();
+                }
+                break;
+            default:
+                readLock.lock();
+                try {
+                    tree.contains(key);
+                } finally {
+                    readLock.unlock();
+                }
+        }
+    }
+
+    /**
+     * @see #stepLocked(AVLTree, ReentrantReadWriteLock, int, int)
+     */
+    static void step(ConcurrentAVLTree<Integer> tree, int key, int i) {
+        switch (i % 10) {
+            case 0:
+                tree.remove(key);
+                break;
+            case 1:
+                tree.add(key);
+                break;
+            case 2:
+                tree.floor(key);
+                break;
+            default:
+                tree.contains(key);
+        }
+    }
+
+    /**
+     * @see #stepLocked(AVLTree, ReentrantReadWriteLock, int, int)
+     */
+    static void step(ConcurrentSkipListMap<Integer, Boolean> map, int key, int i) {
+        switch (i % 10) {
+            case 0:
+                map.remove(key);
+                break;
+            case 1:
+                map.put(key, Boolean.TRUE);
+                break;
+            case 2:
+                map.lowerKey(key);
+                break;
+            default:
+                map.containsKey(key);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * The Timer scenario scaled up to ten million keys, plus a shuffled build and
+ * removing every key, so the cost of retracing after add and remove shows.
+ */
+public class LargeTreeTimer {
+    public static final int TEST_INPUT_SIZE = 10000000;
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : TEST_INPUT_SIZE;
+        int[] shuffled = new int[n];
+        for (int i = 0; i < n; ++i) {
+            shuffled[i] = i;
+        }
+        Random random = new Random(42);
+        for (int i = n - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int temp = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = temp;
+        }
+
+        System.out.println("Timing Test");
+        System.out.println(n + " entries  Built-in tree");
+        TreeSet<Integer> javaTree = new TreeSet<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < n; ++i) {
+            javaTree.add(i);
+        }
+        long stop = System.nanoTime();
+
+        System.out.println("Time to build tree: " + (stop - start) / 1000000 + " ms");
+
+        javaTree = null;
+
+        System.out.println("\nYour Tree: ");
+
+        AVLTree<Integer> myTree = new AVLTree<>();
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; ++i) {
+            myTree.add(i);
+        }
+        stop = System.nanoTime();
+
+        System.out.println("Time to build tree: " + (stop - start) / 1000000 + " ms");
+
+        start = System.nanoTime();
+        myTree.contains(n * 3);
+        stop = System.nanoTime();
+
+        System.out.println("Time to find not there: " + (stop - start));
+
+        start = System.nanoTime();
+        myTree.contains(n - 1);
+        stop = System.nanoTime();
+
+        System.out.println("Time to find last item: " + (stop - start));
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; ++i) {
+            myTree.remove(shuffled[i]);
+        }
+        stop = System.nanoTime();
+
+        System.out.println("Time to remove every item, shuffled: " + (stop - start) / 1000000 + " ms");
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; ++i) {
+            myTree.add(shuffled[i]);
+        }
+        stop = System.nanoTime();
+
+        System.out.println("Time to build tree, shuffled: " + (stop - start) / 1000000 + " ms");
+    }
+}
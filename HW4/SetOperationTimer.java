@@ -0,0 +1,79 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Merges two large trees by adding one item at a time and with union,
+ * then adds a sorted run one at a time and with addAll.
+ */
+public class SetOperationTimer {
+    public static final int TEST_INPUT_SIZE = 2000000;
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : TEST_INPUT_SIZE;
+        Random random = new Random(42);
+        AVLTree<Integer> first = new AVLTree<>();
+        AVLTree<Integer> second = new AVLTree<>();
+        for (int i = 0; i < n; ++i) {
+            first.add(random.nextInt(n * 4));
+            second.add(random.nextInt(n * 4));
+        }
+
+        System.out.println("Timing Test");
+        System.out.println(first.size() + " + " + second.size() + " entries, "
+                + Runtime.getRuntime().availableProcessors() + " processors");
+
+        AVLTree<Integer> merged = copyOf(first);
+        long start = System.nanoTime();
+        for (Integer item : second) {
+            merged.add(item);
+        }
+        long stop = System.nanoTime();
+
+        System.out.println("Time to merge with add: " + (stop - start) / 1000000 + " ms");
+
+        merged = copyOf(first);
+        start = System.nanoTime();
+        merged.union(second);
+        stop = System.nanoTime();
+
+        System.out.println("Time to merge with union: " + (stop - start) / 1000000 + " ms");
+
+        merged = copyOf(first);
+        start = System.nanoTime();
+        merged.intersect(second);
+        stop = System.nanoTime();
+
+        System.out.println("Time to intersect: " + (stop - start) / 1000000 + " ms");
+
+        merged = copyOf(first);
+        start = System.nanoTime();
+        merged.difference(second);
+        stop = System.nanoTime();
+
+        System.out.println("Time to take difference: " + (stop - start) / 1000000 + " ms");
+
+        ArrayList<Integer> sorted = new ArrayList<>(new TreeSet<>(second.getInOrder()));
+
+        merged = copyOf(first);
+        start = System.nanoTime();
+        for (Integer item : sorted) {
+            merged.add(item);
+        }
+        stop = System.nanoTime();
+
+        System.out.println("Time to add sorted run with add: " + (stop - start) / 1000000 + " ms");
+
+        merged = copyOf(first);
+        start = System.nanoTime();
+        merged.addAll(sorted);
+        stop = System.nanoTime();
+
+        System.out.println("Time to add sorted run with addAll: " + (stop - start) / 1000000 + " ms");
+    }
+
+    private static AVLTree<Integer> copyOf(AVLTree<Integer> tree) {
+        AVLTree<Integer> copy = new AVLTree<>();
+        copy.addAll(tree.getInOrder());
+        return copy;
+    }
+}